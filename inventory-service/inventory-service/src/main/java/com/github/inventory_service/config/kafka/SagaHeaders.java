@@ -0,0 +1,17 @@
+package com.github.inventory_service.config.kafka;
+
+/**
+ * Record headers participants stamp on their replies, so the orchestrator can route them without
+ * decoding the value.
+ */
+public final class SagaHeaders {
+
+    public static final String SOURCE = "saga-source";
+    public static final String STATUS = "saga-status";
+    public static final String TRANSACTION_ID = "saga-transaction-id";
+    /** Number of history entries the reply carries, so the orchestrator can tell when to cap it. */
+    public static final String HISTORY_SIZE = "saga-history-size";
+
+    private SagaHeaders() {
+    }
+}
@@ -1,27 +1,27 @@
 package com.github.inventory_service.core.consumer;
 
+import com.github.inventory_service.core.dto.Event;
 import com.github.inventory_service.core.service.InventoryService;
-import com.github.inventory_service.core.utils.JsonUtil;
+import com.github.inventory_service.core.utils.SagaLog;
 import lombok.AllArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-@Slf4j
 @Component
 @AllArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.consumer.mode", havingValue = "record", matchIfMissing = true)
 public class InventoryConsumer {
 
-    private final JsonUtil jsonUtil;
     private final InventoryService inventoryService;
+    private final SagaLog sagaLog;
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.inventory-success}"
     )
-    public void consumeSuccessEvent(String payload) {
-        log.info("Receiving success event {} from inventory-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumeSuccessEvent(Event event) {
+        sagaLog.received("inventory-success", event);
         inventoryService.updateInventory(event);
     }
 
@@ -29,9 +29,8 @@ public class InventoryConsumer {
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.inventory-fail}"
     )
-    public void consumeFailEvent(String payload) {
-        log.info("Receiving rollback event {} from inventory-fail topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumeFailEvent(Event event) {
+        sagaLog.received("inventory-fail", event);
         inventoryService.rollbackInventory(event);
     }
 }
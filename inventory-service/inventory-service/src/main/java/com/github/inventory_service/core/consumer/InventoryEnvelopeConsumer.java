@@ -0,0 +1,38 @@
+package com.github.inventory_service.core.consumer;
+
+import com.github.inventory_service.core.dto.EventEnvelope;
+import com.github.inventory_service.core.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.consumer.mode", havingValue = "envelope")
+public class InventoryEnvelopeConsumer {
+
+    private final InventoryService inventoryService;
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.inventory-success}",
+            containerFactory = "envelopeKafkaListenerContainerFactory"
+    )
+    public void consumeSuccessEnvelope(EventEnvelope envelope) {
+        log.info("Receiving envelope of {} success events from inventory-success topic", envelope.getEvents().size());
+        inventoryService.updateInventory(envelope);
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.inventory-fail}",
+            containerFactory = "envelopeKafkaListenerContainerFactory"
+    )
+    public void consumeFailEnvelope(EventEnvelope envelope) {
+        log.info("Receiving envelope of {} rollback events from inventory-fail topic", envelope.getEvents().size());
+        inventoryService.rollbackInventory(envelope);
+    }
+}
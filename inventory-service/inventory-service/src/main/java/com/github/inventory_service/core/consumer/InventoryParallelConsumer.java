@@ -0,0 +1,43 @@
+package com.github.inventory_service.core.consumer;
+
+import com.github.inventory_service.core.dto.Event;
+import com.github.inventory_service.core.service.InventoryService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.consumer.mode", havingValue = "parallel")
+public class InventoryParallelConsumer {
+
+    private final KeyOrderedDispatcher dispatcher;
+    private final InventoryService inventoryService;
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.inventory-success}",
+            containerFactory = "parallelKafkaListenerContainerFactory"
+    )
+    public void consumeSuccessEvents(List<ConsumerRecord<String, Event>> records, Acknowledgment acknowledgment) {
+        log.info("Receiving {} success events from inventory-success topic", records.size());
+        dispatcher.dispatch(records, acknowledgment, inventoryService::updateInventory);
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.inventory-fail}",
+            containerFactory = "parallelKafkaListenerContainerFactory"
+    )
+    public void consumeFailEvents(List<ConsumerRecord<String, Event>> records, Acknowledgment acknowledgment) {
+        log.info("Receiving {} rollback events from inventory-fail topic", records.size());
+        dispatcher.dispatch(records, acknowledgment, inventoryService::rollbackInventory);
+    }
+}
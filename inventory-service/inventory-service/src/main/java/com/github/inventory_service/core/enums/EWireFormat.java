@@ -0,0 +1,6 @@
+package com.github.inventory_service.core.enums;
+
+public enum EWireFormat {
+    JSON,
+    BINARY
+}
@@ -2,45 +2,69 @@ package com.github.inventory_service.core.service;
 
 import com.github.inventory_service.config.exception.ValidationException;
 import com.github.inventory_service.core.dto.Event;
+import com.github.inventory_service.core.dto.EventEnvelope;
 import com.github.inventory_service.core.dto.History;
 import com.github.inventory_service.core.dto.Order;
 import com.github.inventory_service.core.dto.OrderProducts;
+import com.github.inventory_service.core.jfr.SagaDbEvent;
 import com.github.inventory_service.core.model.Inventory;
 import com.github.inventory_service.core.model.OrderInventory;
 import com.github.inventory_service.core.producer.KafkaProducer;
 import com.github.inventory_service.core.repository.InventoryRepository;
 import com.github.inventory_service.core.repository.OrderInventoryRepository;
-import com.github.inventory_service.core.utils.JsonUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.annotation.Observed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
 
 import static com.github.inventory_service.core.enums.ESagaStatus.*;
 
 @Service
+@Observed(name = "saga.service")
 @Slf4j
 @AllArgsConstructor
 public class InventoryService {
 
     private static final String CURRENT_SOURCE = "INVENTORY_SERVICE";
-    private final JsonUtil jsonUtil;
+    private static final String COMPENSATIONS_METRIC = "saga.compensations";
+    private static final String VALIDATION_ERRORS_METRIC = "saga.validation.errors";
+    private static final String SOURCE_TAG = "source";
     private final KafkaProducer producer;
     private final InventoryRepository inventoryRepository;
     private final OrderInventoryRepository orderInventoryRepository;
+    private final EventEnvelopeProcessor envelopeProcessor;
+    private final MeterRegistry meterRegistry;
 
     public void updateInventory(Event event) {
-        try {
-            checkCurrentValidation(event);
-            createOrderInventory(event);
-            updateInventory(event.getPayload());
-            handleSuccess(event);
-        } catch (Exception e) {
-            log.error("Error trying to update inventory: ", e);
-            handleFailCurrentNotExecuted(event, e.getMessage());
-        }
-        producer.sendEvent(jsonUtil.toJson(event));
+        processInventoryUpdate(event);
+        producer.sendEvent(event.getTransactionId(), event);
+    }
+
+    public void updateInventory(EventEnvelope envelope) {
+        producer.sendEnvelope(envelopeProcessor.process(envelope, this::processInventoryUpdate));
+    }
+
+    private boolean processInventoryUpdate(Event event) {
+        return recordStep("update", event, () -> {
+            try {
+                checkCurrentValidation(event);
+                createOrderInventory(event);
+                updateInventory(event.getPayload());
+                handleSuccess(event);
+                return true;
+            } catch (Exception e) {
+                log.error("Error trying to update inventory: ", e);
+                countValidationError(e);
+                handleFailCurrentNotExecuted(event, e.getMessage());
+                return false;
+            }
+        });
     }
 
 
@@ -118,16 +142,69 @@ public class InventoryService {
         addHistory(event, "Fail to update inventory: ".concat(message));
     }
 
-    public void rollbackInventory(Event event) {
-        event.setStatus(FAIL);
-        event.setSource(CURRENT_SOURCE);
+    private void countValidationError(Exception e) {
+        if (e instanceof ValidationException) {
+            count(VALIDATION_ERRORS_METRIC);
+        }
+    }
+
+    // Inside the transaction of an envelope the meter moves only once it commits: a rolled back
+    // envelope is processed again one event at a time, which counts its events then.
+    private void count(String metric) {
+        var counter = meterRegistry.counter(metric, SOURCE_TAG, CURRENT_SOURCE);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                counter.increment();
+            }
+        });
+    }
+
+    // Steps slower than the JFR threshold are recorded as saga.Db events.
+    private boolean recordStep(String operation, Event event, BooleanSupplier step) {
+        var db = new SagaDbEvent();
+        db.begin();
         try {
-            returnInventoryToPreviousValues(event);
-            addHistory(event, "Rollback executed for inventory!");
-        } catch (Exception e) {
-            addHistory(event, "Rollback not executed for inventory: ".concat(e.getMessage()));
+            return step.getAsBoolean();
+        } finally {
+            db.end();
+            if (db.shouldCommit()) {
+                db.transactionId = event.getTransactionId();
+                db.operation = operation;
+                db.status = event.getStatus() == null ? null : event.getStatus().name();
+                db.commit();
+            }
         }
-        producer.sendEvent(jsonUtil.toJson(event));
+    }
+
+    public void rollbackInventory(Event event) {
+        processInventoryRollback(event);
+        producer.sendEvent(event.getTransactionId(), event);
+    }
+
+    public void rollbackInventory(EventEnvelope envelope) {
+        producer.sendEnvelope(envelopeProcessor.process(envelope, this::processInventoryRollback));
+    }
+
+    private boolean processInventoryRollback(Event event) {
+        return recordStep("rollback", event, () -> {
+            count(COMPENSATIONS_METRIC);
+            event.setStatus(FAIL);
+            event.setSource(CURRENT_SOURCE);
+            try {
+                returnInventoryToPreviousValues(event);
+                addHistory(event, "Rollback executed for inventory!");
+                return true;
+            } catch (Exception e) {
+                addHistory(event, "Rollback not executed for inventory: ".concat(e.getMessage()));
+                return false;
+            }
+        });
     }
 
     private void returnInventoryToPreviousValues(Event event) {
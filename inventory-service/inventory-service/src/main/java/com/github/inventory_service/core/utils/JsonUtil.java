@@ -1,14 +1,28 @@
 package com.github.inventory_service.core.utils;
 
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.github.inventory_service.core.dto.Event;
-import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Component
-@AllArgsConstructor
 public class JsonUtil {
+
+    // Larger buffers are dropped after use instead of being pinned to the thread.
+    private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+
     private final ObjectMapper objectMapper;
+    private final ObjectReader eventReader;
+    private final ObjectWriter eventWriter;
+    private final ThreadLocal<ByteArrayBuilder> buffers = ThreadLocal.withInitial(ByteArrayBuilder::new);
+
+    public JsonUtil(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.eventReader = objectMapper.readerFor(Event.class);
+        this.eventWriter = objectMapper.writerFor(Event.class);
+    }
 
     public String toJson(Object object) {
         try {
@@ -20,7 +34,35 @@ public class JsonUtil {
 
     public Event toEvent(String json) {
         try {
-            return objectMapper.readValue(json, Event.class);
+            return eventReader.readValue(json);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to convert JSON to Event", e);
+        }
+    }
+
+    /**
+     * Writes the event as UTF-8 JSON into a buffer reused by the calling thread, skipping the
+     * intermediate {@code String}.
+     */
+    public byte[] toJsonBytes(Event event) {
+        var buffer = buffers.get();
+        try {
+            eventWriter.writeValue(buffer, event);
+            return buffer.toByteArray();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to convert Event to JSON", e);
+        } finally {
+            if (buffer.getCurrentSegment().length > MAX_POOLED_BUFFER_SIZE) {
+                buffers.remove();
+            } else {
+                buffer.reset();
+            }
+        }
+    }
+
+    public Event toEvent(byte[] json) {
+        try {
+            return eventReader.readValue(json);
         } catch (Exception e) {
             throw new RuntimeException("Failed to convert JSON to Event", e);
         }
@@ -0,0 +1,78 @@
+package com.github.load_generator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Recorder;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Tails the notify-ending topic. Its records are keyed by transaction id, so the value is never
+ * decoded and the final status is not known in this mode.
+ */
+@Slf4j
+final class KafkaCompletionTracker extends SagaCompletionTracker {
+
+    private final KafkaConsumer<String, byte[]> consumer;
+    private final String topic;
+    private final Thread poller;
+    private volatile boolean running = true;
+
+    KafkaCompletionTracker(Recorder recorder, String bootstrapServers, String topic) {
+        super(recorder);
+        this.topic = topic;
+        this.consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false,
+                ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed"
+        ), new StringDeserializer(), new ByteArrayDeserializer());
+        this.poller = new Thread(this::poll, "notify-ending-tail");
+    }
+
+    // Partitions are assigned directly, no consumer group, and read from the end.
+    @Override
+    void start() {
+        var partitions = consumer.partitionsFor(topic)
+                .stream()
+                .map(info -> new TopicPartition(topic, info.partition()))
+                .toList();
+        consumer.assign(partitions);
+        consumer.seekToEnd(partitions);
+        partitions.forEach(consumer::position);
+        log.info("Tailing {} partitions of {}", partitions.size(), topic);
+        poller.start();
+    }
+
+    private void poll() {
+        try {
+            while (running) {
+                for (var record : consumer.poll(Duration.ofMillis(100))) {
+                    if (record.key() != null) {
+                        finish(record.key(), System.nanoTime(), null);
+                    }
+                }
+            }
+        } catch (WakeupException e) {
+            // Closing.
+        } finally {
+            consumer.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        consumer.wakeup();
+        try {
+            poller.join(Duration.ofSeconds(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.github.load_generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open model load generator for {@code POST /api/order}. Orders are started on a fixed schedule
+ * whatever the response times are, and latencies are measured from the time a request was due
+ * rather than from when it was sent, so a stalled service shows up in the percentiles instead of
+ * slowing the generator down (coordinated omission).
+ *
+ * <p>Reports HTTP latency and, unless {@code completion=none}, saga latency until the order service
+ * is notified of the saga ending. Both are printed and written as HdrHistogram percentile
+ * distributions in milliseconds. Failed and timed out requests count in the HTTP latency too, a
+ * failing service must not improve the percentiles; their latency is also reported on its own.
+ */
+@Slf4j
+public class LoadGenerator {
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final LoadGeneratorConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Recorder httpLatency = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+    private final Recorder httpErrorLatency = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+    private final Recorder sagaLatency = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+    private final AtomicLong outstanding = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    LoadGenerator(LoadGeneratorConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadGenerator(LoadGeneratorConfig.parse(args)).run();
+    }
+
+    void run() throws Exception {
+        var mix = new OrderMix(objectMapper, config);
+        try (var tracker = tracker()) {
+            if (tracker != null) {
+                tracker.start();
+            }
+            log.info("Sending {} orders/s to {} for {} s ({} s warm-up), mix {}",
+                    config.rate(), config.target(), config.duration().toSeconds(), config.warmup().toSeconds(), config.mix());
+            drive(mix, tracker);
+            drain(tracker);
+            report(tracker);
+        }
+    }
+
+    private SagaCompletionTracker tracker() {
+        return switch (config.completion()) {
+            case "kafka" -> new KafkaCompletionTracker(sagaLatency, config.bootstrapServers(), config.topic());
+            case "poll" -> new PollingCompletionTracker(sagaLatency, client, objectMapper, config.target(), config.pollInterval());
+            default -> null;
+        };
+    }
+
+    private void drive(OrderMix mix, SagaCompletionTracker tracker) {
+        var orderUri = config.target().resolve("/api/order");
+        var intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.rate());
+        var startNanos = System.nanoTime();
+        var warmupEndNanos = startNanos + config.warmup().toNanos();
+        var endNanos = startNanos + config.duration().toNanos();
+        var warmedUp = false;
+        for (long index = 0; ; index++) {
+            var intendedNanos = startNanos + index * intervalNanos;
+            if (intendedNanos >= endNanos) {
+                return;
+            }
+            parkUntil(intendedNanos);
+            var measured = intendedNanos >= warmupEndNanos;
+            if (measured && !warmedUp) {
+                warmedUp = true;
+                log.info("Warm-up done, recording");
+            }
+            var request = HttpRequest.newBuilder(orderUri)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(mix.nextOrder()))
+                    .build();
+            outstanding.incrementAndGet();
+            sent.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, error) -> {
+                        try {
+                            onResponse(response, error, intendedNanos, measured, tracker);
+                        } finally {
+                            outstanding.decrementAndGet();
+                        }
+                    });
+        }
+    }
+
+    private void onResponse(HttpResponse<byte[]> response, Throwable error, long intendedNanos, boolean measured,
+                            SagaCompletionTracker tracker) {
+        var latencyMicros = Math.min(HIGHEST_LATENCY_MICROS, (System.nanoTime() - intendedNanos) / 1_000);
+        if (measured) {
+            httpLatency.recordValue(latencyMicros);
+        }
+        if (error != null || response.statusCode() != 200) {
+            errors.incrementAndGet();
+            if (measured) {
+                httpErrorLatency.recordValue(latencyMicros);
+            }
+            return;
+        }
+        if (tracker != null) {
+            var transactionId = transactionId(response.body());
+            if (transactionId != null) {
+                tracker.track(transactionId, intendedNanos, measured);
+            }
+        }
+    }
+
+    private String transactionId(byte[] body) {
+        try {
+            var transactionId = objectMapper.readTree(body).path("transactionId");
+            return transactionId.isTextual() ? transactionId.asText() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void drain(SagaCompletionTracker tracker) throws InterruptedException {
+        var deadline = System.nanoTime() + config.drain().toNanos();
+        while ((outstanding.get() > 0 || (tracker != null && tracker.running() > 0)) && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    private void report(SagaCompletionTracker tracker) throws Exception {
+        var elapsedSeconds = (config.duration().toNanos() - config.warmup().toNanos()) / 1e9;
+        log.info("Sent {} orders, {} failed requests, {} responses missing", sent.get(), errors.get(), outstanding.get());
+        report("http", httpLatency.getIntervalHistogram(), elapsedSeconds);
+        report("http-errors", httpErrorLatency.getIntervalHistogram(), elapsedSeconds);
+        if (tracker != null) {
+            report("saga", sagaLatency.getIntervalHistogram(), elapsedSeconds);
+            log.info("Sagas still running after the drain: {}", tracker.running());
+            if (config.completion().equals("poll")) {
+                log.info("Sagas finished: {} succeeded, {} failed", tracker.succeeded(), tracker.failed());
+            }
+        }
+    }
+
+    private void report(String name, Histogram histogram, double elapsedSeconds) throws Exception {
+        log.info("{}: {} recorded ({} /s), p50 {} ms, p90 {} ms, p99 {} ms, p99.9 {} ms, max {} ms",
+                name, histogram.getTotalCount(), format(histogram.getTotalCount() / elapsedSeconds),
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+        Files.createDirectories(config.reportDir());
+        var file = config.reportDir().resolve(name + "-latency.hgrm");
+        try (var out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1_000.0);
+        }
+        log.info("{} percentile distribution written to {}", name, file);
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static String millis(long micros) {
+        return format(micros / 1_000.0);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
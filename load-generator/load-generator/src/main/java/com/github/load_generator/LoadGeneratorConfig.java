@@ -0,0 +1,130 @@
+package com.github.load_generator;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of a run, read from {@code --name=value} arguments.
+ *
+ * <ul>
+ *     <li>{@code target}: base URL of the order service.</li>
+ *     <li>{@code rate}: orders started per second, independent of how fast they are answered.</li>
+ *     <li>{@code duration}, {@code warmup}: seconds of load, the first {@code warmup} seconds are not
+ *     recorded.</li>
+ *     <li>{@code mix}: product codes and their relative weights, e.g. {@code COMIC_BOOKS=90,BOOKS=10}
+ *     to make one SKU hot.</li>
+ *     <li>{@code items}, {@code quantity}: ranges like {@code 1-2} for the distinct products per
+ *     order and the quantity of each.</li>
+ *     <li>{@code unit-value}: unit value of every product.</li>
+ *     <li>{@code completion}: {@code kafka} tails the notify-ending topic, {@code poll} polls
+ *     {@code GET /api/event} and also reports the final status, {@code none} only measures HTTP.</li>
+ *     <li>{@code bootstrap-servers}, {@code topic}: where notify-ending is read from.</li>
+ *     <li>{@code poll-interval-ms}: delay between two polling rounds.</li>
+ *     <li>{@code drain}: seconds to wait for sagas still running when the load stops.</li>
+ *     <li>{@code report-dir}: where the {@code .hgrm} percentile distributions are written.</li>
+ * </ul>
+ */
+public record LoadGeneratorConfig(URI target,
+                                  double rate,
+                                  Duration duration,
+                                  Duration warmup,
+                                  Map<String, Double> mix,
+                                  int minItems,
+                                  int maxItems,
+                                  int minQuantity,
+                                  int maxQuantity,
+                                  double unitValue,
+                                  String completion,
+                                  String bootstrapServers,
+                                  String topic,
+                                  Duration pollInterval,
+                                  Duration drain,
+                                  Path reportDir) {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("target", "http://localhost:3000"),
+            Map.entry("rate", "50"),
+            Map.entry("duration", "60"),
+            Map.entry("warmup", "10"),
+            Map.entry("mix", "COMIC_BOOKS=1,BOOKS=1,MOVIES=1,MUSIC=1"),
+            Map.entry("items", "1-2"),
+            Map.entry("quantity", "1-3"),
+            Map.entry("unit-value", "10"),
+            Map.entry("completion", "kafka"),
+            Map.entry("bootstrap-servers", "localhost:9092"),
+            Map.entry("topic", "notify-ending"),
+            Map.entry("poll-interval-ms", "250"),
+            Map.entry("drain", "60"),
+            Map.entry("report-dir", "target/load-generator")
+    );
+
+    public static LoadGeneratorConfig parse(String[] args) {
+        var values = new HashMap<>(DEFAULTS);
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            var name = arg.substring(2, separator);
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown setting " + name + ", known: " + DEFAULTS.keySet());
+            }
+            values.put(name, arg.substring(separator + 1));
+        }
+        var items = range(values.get("items"));
+        var quantity = range(values.get("quantity"));
+        var completion = values.get("completion");
+        if (!completion.equals("kafka") && !completion.equals("poll") && !completion.equals("none")) {
+            throw new IllegalArgumentException("completion must be kafka, poll or none");
+        }
+        var config = new LoadGeneratorConfig(
+                URI.create(values.get("target")),
+                Double.parseDouble(values.get("rate")),
+                Duration.ofSeconds(Long.parseLong(values.get("duration"))),
+                Duration.ofSeconds(Long.parseLong(values.get("warmup"))),
+                mix(values.get("mix")),
+                items[0], items[1],
+                quantity[0], quantity[1],
+                Double.parseDouble(values.get("unit-value")),
+                completion,
+                values.get("bootstrap-servers"),
+                values.get("topic"),
+                Duration.ofMillis(Long.parseLong(values.get("poll-interval-ms"))),
+                Duration.ofSeconds(Long.parseLong(values.get("drain"))),
+                Path.of(values.get("report-dir")));
+        if (config.rate <= 0 || config.warmup.compareTo(config.duration) >= 0) {
+            throw new IllegalArgumentException("rate must be positive and warmup shorter than duration");
+        }
+        if (config.minItems < 1 || config.maxItems > config.mix.size()) {
+            throw new IllegalArgumentException("items must be between 1 and the number of products in the mix");
+        }
+        return config;
+    }
+
+    private static int[] range(String value) {
+        var bounds = value.split("-", 2);
+        var min = Integer.parseInt(bounds[0].trim());
+        var max = bounds.length == 1 ? min : Integer.parseInt(bounds[1].trim());
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("Invalid range " + value);
+        }
+        return new int[]{min, max};
+    }
+
+    private static Map<String, Double> mix(String value) {
+        var mix = new LinkedHashMap<String, Double>();
+        for (var entry : value.split(",")) {
+            var parts = entry.split("=", 2);
+            var weight = parts.length == 1 ? 1 : Double.parseDouble(parts[1].trim());
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Invalid weight in mix entry " + entry);
+            }
+            mix.put(parts[0].trim(), weight);
+        }
+        return mix;
+    }
+}
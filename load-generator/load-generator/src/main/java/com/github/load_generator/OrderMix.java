@@ -0,0 +1,75 @@
+package com.github.load_generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Builds {@code OrderRequest} bodies: the distinct products of an order are drawn by weight without
+ * replacement, so a heavy weight concentrates the orders, and the stock updates, on one SKU.
+ */
+final class OrderMix {
+
+    private final ObjectMapper objectMapper;
+    private final LoadGeneratorConfig config;
+    private final String[] codes;
+    private final double[] weights;
+
+    OrderMix(ObjectMapper objectMapper, LoadGeneratorConfig config) {
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.codes = config.mix().keySet().toArray(String[]::new);
+        this.weights = config.mix().values().stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    byte[] nextOrder() {
+        var random = ThreadLocalRandom.current();
+        var remaining = weights.clone();
+        var items = random.nextInt(config.minItems(), config.maxItems() + 1);
+        var products = new ArrayList<Map<String, Object>>(items);
+        for (var item = 0; item < items; item++) {
+            var index = pick(remaining, random);
+            remaining[index] = 0;
+            products.add(product(codes[index], random.nextInt(config.minQuantity(), config.maxQuantity() + 1)));
+        }
+        try {
+            return objectMapper.writeValueAsBytes(Map.of("products", products));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to write order request", e);
+        }
+    }
+
+    private Map<String, Object> product(String code, int quantity) {
+        var product = new LinkedHashMap<String, Object>();
+        product.put("product", Map.of("code", code, "unitValue", config.unitValue()));
+        product.put("quantity", quantity);
+        return product;
+    }
+
+    private static int pick(double[] weights, ThreadLocalRandom random) {
+        var total = 0.0;
+        for (var weight : weights) {
+            total += weight;
+        }
+        var target = random.nextDouble(total);
+        for (var index = 0; index < weights.length; index++) {
+            target -= weights[index];
+            if (target < 0 && weights[index] > 0) {
+                return index;
+            }
+        }
+        return lastPositive(weights);
+    }
+
+    private static int lastPositive(double[] weights) {
+        for (var index = weights.length - 1; index >= 0; index--) {
+            if (weights[index] > 0) {
+                return index;
+            }
+        }
+        throw new IllegalStateException("No products left to draw from");
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.load_generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Polls {@code GET /api/event?transactionId=} for every running saga. The order service stores the
+ * event again with its final status when the saga ends, so a status marks the end. Latency is only
+ * as precise as the polling interval, and the polls add load to the order service.
+ */
+@Slf4j
+final class PollingCompletionTracker extends SagaCompletionTracker {
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final URI eventUri;
+    private final Duration interval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "saga-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    PollingCompletionTracker(Recorder recorder, HttpClient client, ObjectMapper objectMapper, URI target, Duration interval) {
+        super(recorder);
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.eventUri = target.resolve("/api/event");
+        this.interval = interval;
+    }
+
+    // Rounds never overlap: the next one is scheduled after every poll of the previous one is answered.
+    @Override
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::pollRound, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void pollRound() {
+        try {
+            var polls = new ArrayList<CompletableFuture<Void>>();
+            for (var transactionId : runningTransactionIds()) {
+                polls.add(poll(transactionId));
+            }
+            CompletableFuture.allOf(polls.toArray(CompletableFuture[]::new)).join();
+        } catch (Exception e) {
+            log.warn("Polling round failed: {}", e.getMessage());
+        }
+    }
+
+    private CompletableFuture<Void> poll(String transactionId) {
+        var request = HttpRequest
+                .newBuilder(URI.create(eventUri + "?transactionId=" + URLEncoder.encode(transactionId, UTF_8)))
+                .GET()
+                .build();
+        return client
+                .sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenAccept(response -> {
+                    if (response.statusCode() != 200) {
+                        return;
+                    }
+                    var status = status(response.body());
+                    if (status != null) {
+                        finish(transactionId, System.nanoTime(), status);
+                    }
+                })
+                .exceptionally(error -> null);
+    }
+
+    private String status(byte[] body) {
+        try {
+            var status = objectMapper.readTree(body).path("status");
+            return status.isTextual() ? status.asText() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
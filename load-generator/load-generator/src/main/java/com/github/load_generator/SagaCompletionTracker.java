@@ -0,0 +1,100 @@
+package com.github.load_generator;
+
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Correlates the transaction ids returned by {@code POST /api/order} with the end of their saga and
+ * records the saga latency from the intended start of the request. The end can be observed before
+ * the HTTP response is handled, so whichever side comes second records the latency.
+ */
+abstract class SagaCompletionTracker implements AutoCloseable {
+
+    private static final String SUCCESS = "SUCCESS";
+
+    private final Map<String, State> sagas = new ConcurrentHashMap<>();
+    private final Recorder recorder;
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private sealed interface State permits Started, Finished {
+    }
+
+    private record Started(long intendedStartNanos, boolean measured) implements State {
+    }
+
+    private record Finished(long finishedNanos, String status) implements State {
+    }
+
+    protected SagaCompletionTracker(Recorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Called once the listener or poller is ready, before the first order is sent.
+     */
+    abstract void start();
+
+    void track(String transactionId, long intendedStartNanos, boolean measured) {
+        sagas.compute(transactionId, (id, state) -> {
+            if (state instanceof Finished finished) {
+                record(intendedStartNanos, measured, finished.finishedNanos(), finished.status());
+                return null;
+            }
+            return new Started(intendedStartNanos, measured);
+        });
+    }
+
+    void finish(String transactionId, long finishedNanos, String status) {
+        sagas.compute(transactionId, (id, state) -> {
+            if (state instanceof Started started) {
+                record(started.intendedStartNanos(), started.measured(), finishedNanos, status);
+                return null;
+            }
+            // Not sent by this run, or its response is still being handled.
+            return state == null ? new Finished(finishedNanos, status) : state;
+        });
+    }
+
+    long running() {
+        return sagas.values().stream().filter(Started.class::isInstance).count();
+    }
+
+    Iterable<String> runningTransactionIds() {
+        return sagas.entrySet()
+                .stream()
+                .filter(entry -> entry.getValue() instanceof Started)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    long succeeded() {
+        return succeeded.get();
+    }
+
+    long failed() {
+        return failed.get();
+    }
+
+    private void record(long intendedStartNanos, boolean measured, long finishedNanos, String status) {
+        if (!measured) {
+            return;
+        }
+        recorder.recordValue(Math.max(0, (finishedNanos - intendedStartNanos) / 1_000));
+        if (status == null) {
+            return;
+        }
+        if (SUCCESS.equals(status)) {
+            succeeded.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
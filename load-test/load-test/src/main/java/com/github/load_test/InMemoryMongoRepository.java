@@ -0,0 +1,183 @@
+package com.github.load_test;
+
+import com.github.order_service.core.document.Event;
+import com.github.order_service.core.document.Order;
+import com.github.order_service.core.repository.EventRepository;
+import com.github.order_service.core.repository.OrderRepository;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Map backed stand-in for the Mongo repositories of the order service. It implements the calls the
+ * service makes and assigns ids on save like Mongo does; any other repository method fails loudly
+ * so a new query shows up here instead of silently returning nothing.
+ */
+final class InMemoryMongoRepository<T> implements InvocationHandler {
+
+    private static final Comparator<Event> OLDEST_FIRST = Comparator.comparing(
+            Event::getCreatedAt, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()));
+    private static final Comparator<Event> NEWEST_FIRST = Comparator.comparing(
+            Event::getCreatedAt, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder().reversed()));
+
+    private final Map<String, T> documents = new ConcurrentHashMap<>();
+    private final Function<T, String> idGetter;
+    private final BiConsumer<T, String> idSetter;
+    private final Map<String, Function<Object[], Object>> queries = new ConcurrentHashMap<>();
+
+    private InMemoryMongoRepository(Function<T, String> idGetter, BiConsumer<T, String> idSetter) {
+        this.idGetter = idGetter;
+        this.idSetter = idSetter;
+    }
+
+    @SuppressWarnings("unchecked")
+    static EventRepository events() {
+        var repository = new InMemoryMongoRepository<Event>(Event::getId, Event::setId);
+        repository.queries.put("findAllByOrderByCreatedAtDesc", args -> repository.values()
+                .stream()
+                .sorted(NEWEST_FIRST)
+                .toList());
+        repository.queries.put("findTop1ByOrderIdOrderByCreatedAtDesc", args -> repository.values()
+                .stream()
+                .filter(event -> Objects.equals(event.getOrderId(), args[0]))
+                .min(NEWEST_FIRST));
+        repository.queries.put("findTop1ByTransactionIdOrderByCreatedAtDesc", args -> repository.values()
+                .stream()
+                .filter(event -> Objects.equals(event.getTransactionId(), args[0]))
+                .min(NEWEST_FIRST));
+        repository.queries.put("findByOutboxPendingTrueAndOutboxLeaseUntilBeforeOrderByCreatedAtAsc", args -> repository.values()
+                .stream()
+                .filter(event -> Boolean.TRUE.equals(event.getOutboxPending()) && isBefore(event.getOutboxLeaseUntil(), args[0]))
+                .sorted(OLDEST_FIRST)
+                .limit(((Limit) args[1]).max())
+                .toList());
+        repository.queries.put("findAndClaimOutboxByIdInAndOutboxLeaseUntilBefore", args -> ((Collection<?>) args[0])
+                .stream()
+                .filter(id -> {
+                    var claimed = new boolean[1];
+                    repository.documents.computeIfPresent((String) id, (key, event) -> {
+                        if (isBefore(event.getOutboxLeaseUntil(), args[1])) {
+                            event.setOutboxClaim((String) args[2]);
+                            event.setOutboxLeaseUntil((Instant) args[3]);
+                            claimed[0] = true;
+                        }
+                        return event;
+                    });
+                    return claimed[0];
+                })
+                .count());
+        repository.queries.put("findByOutboxClaimOrderByCreatedAtAsc", args -> repository.values()
+                .stream()
+                .filter(event -> Objects.equals(event.getOutboxClaim(), args[0]))
+                .sorted(OLDEST_FIRST)
+                .toList());
+        repository.queries.put("findAndClearOutboxPendingByIdIn", args -> ((Collection<?>) args[0])
+                .stream()
+                .filter(id -> repository.documents.computeIfPresent((String) id, (key, event) -> {
+                    event.setOutboxPending(null);
+                    event.setOutboxClaim(null);
+                    event.setOutboxLeaseUntil(null);
+                    return event;
+                }) != null)
+                .count());
+        repository.queries.put("insertUnordered", args -> {
+            repository.saveAll((List<Event>) args[0]);
+            return Map.of();
+        });
+        return repository.proxy(EventRepository.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    static OrderRepository orders() {
+        var repository = new InMemoryMongoRepository<Order>(Order::getId, Order::setId);
+        repository.queries.put("insertIgnoringDuplicates", args -> {
+            ((List<Order>) args[0]).forEach(order -> repository.documents.putIfAbsent(order.getId(), order));
+            return null;
+        });
+        return repository.proxy(OrderRepository.class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        var query = queries.get(method.getName());
+        if (query != null) {
+            return query.apply(args);
+        }
+        var arguments = args == null ? 0 : args.length;
+        return switch (method.getName()) {
+            case "save", "insert" -> args[0] instanceof Iterable<?> batch
+                    ? saveAll((Iterable<T>) batch)
+                    : save((T) args[0]);
+            case "saveAll" -> saveAll((Iterable<T>) args[0]);
+            case "findById" -> Optional.ofNullable(documents.get(args[0]));
+            case "existsById" -> documents.containsKey(args[0]);
+            case "findAll" -> {
+                if (arguments > 0) {
+                    throw unsupported(method);
+                }
+                yield values();
+            }
+            case "count" -> (long) documents.size();
+            case "deleteAll" -> {
+                if (arguments > 0) {
+                    throw unsupported(method);
+                }
+                documents.clear();
+                yield null;
+            }
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> "InMemoryMongoRepository[" + documents.size() + " documents]";
+            default -> throw unsupported(method);
+        };
+    }
+
+    private T save(T document) {
+        var id = idGetter.apply(document);
+        if (id == null) {
+            id = ObjectId.get().toHexString();
+            idSetter.accept(document, id);
+        }
+        documents.put(id, document);
+        return document;
+    }
+
+    private List<T> saveAll(Iterable<T> documents) {
+        var saved = new ArrayList<T>();
+        documents.forEach(document -> saved.add(save(document)));
+        return saved;
+    }
+
+    // Like a Mongo $lt, a missing field does not match.
+    private static boolean isBefore(Instant value, Object bound) {
+        return value != null && value.isBefore((Instant) bound);
+    }
+
+    private List<T> values() {
+        return new ArrayList<>(documents.values());
+    }
+
+    private <R> R proxy(Class<R> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, this));
+    }
+
+    private static UnsupportedOperationException unsupported(Method method) {
+        return new UnsupportedOperationException("Not supported by the in-memory repository: " + method);
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.load_test;
+
+import com.github.order_service.core.document.Event;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End to end saga latency, from {@code Order.createdAt} to the moment the order service is notified
+ * of the saga ending. Values are kept in microseconds.
+ */
+final class SagaLatencyRecorder {
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final String SUCCESS = "SUCCESS";
+
+    private final Recorder recorder = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long lastCompletionNanos;
+
+    void complete(Event event) {
+        var order = event.getPayload();
+        if (order != null && order.getCreatedAt() != null) {
+            var latency = Duration.between(order.getCreatedAt(), LocalDateTime.now()).toNanos() / 1_000;
+            recorder.recordValue(Math.clamp(latency, 0, HIGHEST_LATENCY_MICROS));
+        }
+        if (SUCCESS.equals(event.getStatus())) {
+            succeeded.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+        }
+        lastCompletionNanos = System.nanoTime();
+    }
+
+    /**
+     * Drops what was recorded so far, used between the warm-up and the measured run.
+     */
+    void reset() {
+        recorder.reset();
+        succeeded.set(0);
+        failed.set(0);
+    }
+
+    boolean await(long sagas, Duration timeout) throws InterruptedException {
+        var deadline = System.nanoTime() + timeout.toNanos();
+        while (completed() < sagas) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+
+    long completed() {
+        return succeeded.get() + failed.get();
+    }
+
+    long succeeded() {
+        return succeeded.get();
+    }
+
+    long failed() {
+        return failed.get();
+    }
+
+    long lastCompletionNanos() {
+        return lastCompletionNanos;
+    }
+
+    Histogram histogram() {
+        return recorder.getIntervalHistogram();
+    }
+}
@@ -0,0 +1,206 @@
+package com.github.load_test;
+
+import com.github.inventory_service.InventoryServiceApplication;
+import com.github.orchestrator_service.OrchestratorServiceApplication;
+import com.github.order_service.OrderServiceApplication;
+import com.github.order_service.core.document.Event;
+import com.github.order_service.core.document.OrderProducts;
+import com.github.order_service.core.document.Product;
+import com.github.order_service.core.dto.OrderRequest;
+import com.github.order_service.core.service.EventService;
+import com.github.order_service.core.service.OrderService;
+import com.github.payment_service.PaymentServiceApplication;
+import com.github.product_validation_service.ProductValidationServiceApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs the five services in one JVM against an embedded KRaft broker, with H2 in PostgreSQL mode
+ * behind the JPA services and in-memory repositories behind the order service. Orders go through
+ * {@link OrderService#createOrder(OrderRequest)} from a pool of client threads; a saga is complete
+ * when {@link EventService#notifyEnd(Event)} runs.
+ *
+ * <p>A warm-up batch runs first and is not reported. The run prints sagas per second and the p50,
+ * p99 and p99.9 end to end latency, and exits with {@code 1} when it times out or when the
+ * throughput is under {@code load-test.min-throughput}.
+ */
+@Slf4j
+public class SagaLoadTest {
+
+    private static final String[] TOPICS = {
+            "start-saga", "orchestrator", "finish-success", "finish-fail", "notify-ending",
+            "product-validation-success", "product-validation-fail",
+            "payment-success", "payment-fail",
+            "inventory-success", "inventory-fail"
+    };
+    private static final int PARTITIONS = 3;
+    private static final String[] PRODUCT_CODES = {"COMIC_BOOKS", "BOOKS", "MOVIES", "MUSIC"};
+
+    private final int orders = Integer.getInteger("load-test.orders", 5000);
+    private final int warmupOrders = Integer.getInteger("load-test.warmup-orders", 500);
+    private final int clients = Integer.getInteger("load-test.clients", 8);
+    private final Duration timeout = Duration.ofSeconds(Integer.getInteger("load-test.timeout-seconds", 300));
+    private final double minThroughput = Double.parseDouble(System.getProperty("load-test.min-throughput", "0"));
+    private final Path root = Path.of(System.getProperty("load-test.root", "../..")).toAbsolutePath().normalize();
+
+    private final SagaLatencyRecorder recorder = new SagaLatencyRecorder();
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new SagaLoadTest().run());
+    }
+
+    private int run() throws Exception {
+        var broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, TOPICS);
+        broker.afterPropertiesSet();
+        var workDir = Files.createTempDirectory("saga-load-test");
+        var clientPool = Executors.newFixedThreadPool(clients);
+        try {
+            var common = List.of(
+                    "--load-test.bootstrap-servers=" + broker.getBrokersAsString(),
+                    "--load-test.work-dir=" + workDir);
+            start("orchestrator-service", OrchestratorServiceApplication.class, common);
+            start("product-validation-service", ProductValidationServiceApplication.class, common);
+            start("payment-service", PaymentServiceApplication.class, common);
+            start("inventory-service", InventoryServiceApplication.class, common);
+            var orderService = start("order-service", OrderServiceApplication.class, common, this::registerOrderStandIns)
+                    .getBean(OrderService.class);
+
+            log.info("Warming up with {} orders", warmupOrders);
+            if (!push(orderService, clientPool, warmupOrders)) {
+                log.error("Warm-up did not finish within {}", timeout);
+                return 1;
+            }
+            recorder.reset();
+
+            log.info("Pushing {} orders from {} clients", orders, clients);
+            var startedAt = System.nanoTime();
+            if (!push(orderService, clientPool, orders)) {
+                log.error("Only {} of {} sagas finished within {}", recorder.completed(), orders, timeout);
+                return 1;
+            }
+            var throughput = report(startedAt);
+            if (throughput < minThroughput) {
+                log.error("Throughput {} sagas/s is under the minimum of {}", format(throughput), format(minThroughput));
+                return 1;
+            }
+            return 0;
+        } finally {
+            clientPool.shutdownNow();
+            contexts.reversed().forEach(ConfigurableApplicationContext::close);
+            broker.destroy();
+        }
+    }
+
+    private ConfigurableApplicationContext start(String service, Class<?> application, List<String> common) {
+        return start(service, application, common, context -> {
+
+        });
+    }
+
+    // Each context reads the service's own application.yaml, then the overrides of this harness.
+    private ConfigurableApplicationContext start(String service, Class<?> application, List<String> common,
+                                                 ApplicationContextInitializer<ConfigurableApplicationContext> initializer) {
+        log.info("Starting {}", service);
+        var configLocation = "file:" + root.resolve(service).resolve(service).resolve("src/main/resources/application.yaml")
+                + ",classpath:/load-test/common.yaml"
+                + ",optional:classpath:/load-test/" + service + ".yaml";
+        var args = new ArrayList<>(common);
+        args.add("--spring.config.location=" + configLocation);
+        args.add("--spring.application.name=" + service);
+        var context = new SpringApplicationBuilder(application)
+                .initializers(initializer)
+                .run(args.toArray(String[]::new));
+        contexts.add(context);
+        return context;
+    }
+
+    private void registerOrderStandIns(ConfigurableApplicationContext context) {
+        var beanFactory = context.getBeanFactory();
+        beanFactory.registerSingleton("eventRepository", InMemoryMongoRepository.events());
+        beanFactory.registerSingleton("orderRepository", InMemoryMongoRepository.orders());
+
+        var notifyEnd = new NameMatchMethodPointcut();
+        notifyEnd.setMappedName("notifyEnd");
+        notifyEnd.setClassFilter(new RootClassFilter(EventService.class));
+        beanFactory.registerSingleton("sagaCompletionAdvisor", new DefaultPointcutAdvisor(notifyEnd,
+                (MethodInterceptor) invocation -> {
+                    var result = invocation.proceed();
+                    recorder.complete((Event) invocation.getArguments()[0]);
+                    return result;
+                }));
+    }
+
+    private boolean push(OrderService orderService, ExecutorService clientPool, int count) throws InterruptedException {
+        var target = recorder.completed() + count;
+        for (var index = 0; index < count; index++) {
+            clientPool.execute(() -> {
+                try {
+                    orderService.createOrder(randomOrder());
+                } catch (Exception e) {
+                    log.error("Failed to create order: {}", e.getMessage());
+                }
+            });
+        }
+        return recorder.await(target, timeout);
+    }
+
+    private double report(long startedAt) {
+        var histogram = recorder.histogram();
+        var elapsedNanos = recorder.lastCompletionNanos() - startedAt;
+        var throughput = recorder.completed() / (elapsedNanos / 1e9);
+        log.info("""
+
+                        Sagas:       {} ({} succeeded, {} failed)
+                        Elapsed:     {} s
+                        Throughput:  {} sagas/s
+                        Latency p50: {} ms
+                        Latency p99: {} ms
+                        Latency p99.9: {} ms
+                        Latency max: {} ms""",
+                recorder.completed(), recorder.succeeded(), recorder.failed(),
+                format(elapsedNanos / 1e9),
+                format(throughput),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+        return throughput;
+    }
+
+    private static OrderRequest randomOrder() {
+        var random = ThreadLocalRandom.current();
+        var products = new ArrayList<OrderProducts>();
+        for (var code : PRODUCT_CODES) {
+            if (products.isEmpty() || random.nextBoolean()) {
+                products.add(new OrderProducts(new Product(code, 10 + random.nextInt(90)), 1 + random.nextInt(3)));
+            }
+        }
+        return new OrderRequest(products);
+    }
+
+    private static String millis(long micros) {
+        return format(micros / 1_000.0);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
@@ -0,0 +1,4 @@
+INSERT INTO public.inventory (id, product_code, available) VALUES (1, 'COMIC_BOOKS', 100000000);
+INSERT INTO public.inventory (id, product_code, available) VALUES (2, 'BOOKS', 100000000);
+INSERT INTO public.inventory (id, product_code, available) VALUES (3, 'MOVIES', 100000000);
+INSERT INTO public.inventory (id, product_code, available) VALUES (4, 'MUSIC', 100000000);
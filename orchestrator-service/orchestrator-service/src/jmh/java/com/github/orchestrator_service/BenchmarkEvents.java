@@ -0,0 +1,42 @@
+package com.github.orchestrator_service;
+
+import com.github.orchestrator_service.core.dto.Event;
+import com.github.orchestrator_service.core.dto.History;
+import com.github.orchestrator_service.core.dto.Order;
+import com.github.orchestrator_service.core.dto.OrderProducts;
+import com.github.orchestrator_service.core.dto.Product;
+import com.github.orchestrator_service.core.enums.EEventSource;
+import com.github.orchestrator_service.core.enums.ESagaStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Events shaped like the ones the saga carries, sized by the number of order products and history
+ * entries.
+ */
+public final class BenchmarkEvents {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 15, 10, 30, 45);
+
+    private BenchmarkEvents() {
+
+    }
+
+    public static Event event(EEventSource source, ESagaStatus status, int products, int historyEntries) {
+        var items = new ArrayList<OrderProducts>(products);
+        for (var index = 0; index < products; index++) {
+            items.add(new OrderProducts(new Product("PRODUCT_" + index, 10.5 + index), index % 5 + 1));
+        }
+        var order = new Order("order-1", items, CREATED_AT, "tx-1", 0, 0);
+        var event = new Event("event-1", "tx-1", "order-1", order, source, status, null, CREATED_AT);
+        for (var index = 0; index < historyEntries; index++) {
+            event.addToHistory(history(index));
+        }
+        return event;
+    }
+
+    public static History history(int index) {
+        return new History(EEventSource.ORCHESTRATOR, ESagaStatus.SUCCESS, "Saga step " + index + " executed!", CREATED_AT);
+    }
+}
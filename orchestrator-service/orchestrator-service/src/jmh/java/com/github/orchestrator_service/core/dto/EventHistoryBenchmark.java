@@ -0,0 +1,51 @@
+package com.github.orchestrator_service.core.dto;
+
+import com.github.orchestrator_service.BenchmarkEvents;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Growth of the event history one entry per saga step, as the orchestrator and the participants
+ * append to it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventHistoryBenchmark {
+
+    @Param({"5", "50"})
+    private int entries;
+
+    private History[] histories;
+
+    @Setup
+    public void setUp() {
+        histories = new History[entries];
+        for (var index = 0; index < entries; index++) {
+            histories[index] = BenchmarkEvents.history(index);
+        }
+    }
+
+    @Benchmark
+    public Event addToHistory() {
+        var event = new Event();
+        for (var history : histories) {
+            event.addToHistory(history);
+        }
+        return event;
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.orchestrator_service.core.saga;
+
+import com.github.orchestrator_service.BenchmarkEvents;
+import com.github.orchestrator_service.core.dto.Event;
+import com.github.orchestrator_service.core.enums.EEventSource;
+import com.github.orchestrator_service.core.enums.ESagaStatus;
+import com.github.orchestrator_service.core.enums.ETopics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.github.orchestrator_service.core.saga.SagaHandler.*;
+
+/**
+ * Next topic resolution for every transition of the saga, from a decoded event and from the
+ * routing headers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SagaRoutingBenchmark {
+
+    private SagaExecutionController controller;
+    private Event[] events;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        controller = new SagaExecutionController(new SagaMetrics(new SimpleMeterRegistry()));
+        events = new Event[SAGA_HANDLER.length];
+        for (var index = 0; index < SAGA_HANDLER.length; index++) {
+            var row = SAGA_HANDLER[index];
+            events[index] = BenchmarkEvents.event((EEventSource) row[EVENT_SOURCE_INDEX], (ESagaStatus) row[SAGA_STATUS_INDEX], 3, 3);
+        }
+    }
+
+    @Benchmark
+    public ETopics nextTopicFromEvent() {
+        return controller.getNextTopic(nextEvent());
+    }
+
+    @Benchmark
+    public ETopics nextTopicFromHeaders() {
+        var event = nextEvent();
+        return controller.getNextTopic(event.getTransactionId(), event.getSource(), event.getStatus());
+    }
+
+    private Event nextEvent() {
+        var event = events[next];
+        next = next + 1 == events.length ? 0 : next + 1;
+        return event;
+    }
+}
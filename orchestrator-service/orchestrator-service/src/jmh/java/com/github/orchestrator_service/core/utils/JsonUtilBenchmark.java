@@ -0,0 +1,72 @@
+package com.github.orchestrator_service.core.utils;
+
+import com.github.orchestrator_service.BenchmarkEvents;
+import com.github.orchestrator_service.config.jackson.JacksonConfig;
+import com.github.orchestrator_service.core.dto.Event;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.github.orchestrator_service.core.enums.EEventSource.PAYMENT_SERVICE;
+import static com.github.orchestrator_service.core.enums.ESagaStatus.SUCCESS;
+
+/**
+ * JSON encoding and decoding of events for small and large orders, with short and long histories.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonUtilBenchmark {
+
+    @Param({"1", "50"})
+    private int products;
+
+    @Param({"1", "50"})
+    private int historyEntries;
+
+    private JsonUtil jsonUtil;
+    private Event event;
+    private String json;
+    private byte[] jsonBytes;
+
+    @Setup
+    public void setUp() {
+        jsonUtil = new JsonUtil(new JacksonConfig().objectMapper());
+        event = BenchmarkEvents.event(PAYMENT_SERVICE, SUCCESS, products, historyEntries);
+        json = jsonUtil.toJson(event);
+        jsonBytes = jsonUtil.toJsonBytes(event);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return jsonUtil.toJson(event);
+    }
+
+    @Benchmark
+    public byte[] toJsonBytes() {
+        return jsonUtil.toJsonBytes(event);
+    }
+
+    @Benchmark
+    public Event toEventFromString() {
+        return jsonUtil.toEvent(json);
+    }
+
+    @Benchmark
+    public Event toEventFromBytes() {
+        return jsonUtil.toEvent(jsonBytes);
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.orchestrator_service.config.kafka;
+
+import com.github.orchestrator_service.core.dto.Event;
+import com.github.orchestrator_service.core.jfr.SagaDecodeEvent;
+import com.github.orchestrator_service.core.utils.EventCodec;
+import com.github.orchestrator_service.core.utils.JsonUtil;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Reads events in either wire format; binary payloads are recognized by the codec's magic byte,
+ * anything else is parsed as JSON. Decodes slower than the JFR threshold are recorded as
+ * {@code saga.Decode} events.
+ */
+@RequiredArgsConstructor
+public class EventDeserializer implements Deserializer<Event> {
+
+    private final EventCodec codec;
+    private final JsonUtil jsonUtil;
+
+    @Override
+    public Event deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        var decode = new SagaDecodeEvent();
+        decode.begin();
+        try {
+            var binary = codec.isEncoded(data);
+            var event = binary ? codec.decode(data) : jsonUtil.toEvent(data);
+            decode.end();
+            if (decode.shouldCommit()) {
+                decode.transactionId = event == null ? null : event.getTransactionId();
+                decode.topic = topic;
+                decode.format = binary ? "binary" : "json";
+                decode.size = data.length;
+                decode.commit();
+            }
+            return event;
+        } catch (RuntimeException e) {
+            throw new SerializationException("Failed to deserialize event from topic " + topic, e);
+        }
+    }
+}
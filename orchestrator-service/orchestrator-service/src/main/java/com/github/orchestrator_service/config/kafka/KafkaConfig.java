@@ -1,20 +1,39 @@
 package com.github.orchestrator_service.config.kafka;
 
+import com.github.orchestrator_service.core.consumer.SagaPartitionListener;
+import com.github.orchestrator_service.core.dto.Event;
+import com.github.orchestrator_service.core.dto.EventEnvelope;
+import com.github.orchestrator_service.core.enums.ETopics;
+import com.github.orchestrator_service.core.enums.EWireFormat;
+import com.github.orchestrator_service.core.utils.EventCodec;
+import com.github.orchestrator_service.core.utils.JsonUtil;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
 
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 import static com.github.orchestrator_service.core.enums.ETopics.*;
 
@@ -23,8 +42,17 @@ import static com.github.orchestrator_service.core.enums.ETopics.*;
 @RequiredArgsConstructor
 public class KafkaConfig {
 
-    private static final Integer PARTITION_COUNT = 1;
     private static final Integer REPLICA_COUNT = 1;
+    private static final String TOPIC_PARTITIONS_PROPERTY = "spring.kafka.partitions.";
+    private static final String TOPIC_WIRE_FORMAT_PROPERTY = "spring.kafka.wire-format.topics.";
+    private static final Set<ETopics> ORCHESTRATOR_TOPICS = EnumSet.of(START_SAGA, BASE_ORCHESTRATOR, FINISH_SUCCESS, FINISH_FAIL);
+
+    private final Environment environment;
+    private final EventCodec eventCodec;
+    private final JsonUtil jsonUtil;
+    private final SagaPartitionListener sagaPartitionListener;
+    private final String instanceId = UUID.randomUUID().toString();
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String boostrapServers;
 
@@ -34,49 +62,241 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.auto-offset-reset}")
     private String autoOffsetReset;
 
+    @Value("${spring.kafka.partitions.default:1}")
+    private Integer defaultPartitionCount;
+
+    @Value("${spring.kafka.listener.concurrency:1}")
+    private Integer listenerConcurrency;
+
+    @Value("${spring.kafka.listener.observation-enabled:true}")
+    private boolean listenerObservationEnabled;
+
+    @Value("${spring.kafka.template.observation-enabled:true}")
+    private boolean templateObservationEnabled;
+
+    @Value("${spring.kafka.producer.delivery-timeout-ms:120000}")
+    private Integer deliveryTimeoutMillis;
+
+    @Value("${spring.kafka.wire-format.default:binary}")
+    private String defaultWireFormat;
+
+    @Value("${spring.kafka.consumer.isolation-level:read_committed}")
+    private String isolationLevel;
+
+    @Value("${spring.kafka.transaction.enabled:false}")
+    private boolean transactional;
+
+    @Value("${spring.kafka.transaction.id-prefix:orchestrator-tx-}")
+    private String transactionIdPrefix;
+
+    @Value("${spring.kafka.consumer.mode:record}")
+    private String consumerMode;
+
+    @Value("${saga.routing.mode:payload}")
+    private String routingMode;
+
+    @Value("${saga.envelope.enabled:false}")
+    private boolean envelopeEnabled;
+
+    /**
+     * A listener transaction costs a round trip to the transaction coordinator at every commit, so
+     * one per record is refused: transactions need batch listeners or envelopes. Header routing runs
+     * a record listener, it needs envelopes.
+     */
+    @PostConstruct
+    void checkTransactions() {
+        var perRecord = !envelopeEnabled && ("record".equalsIgnoreCase(consumerMode) || "header".equalsIgnoreCase(routingMode));
+        if (transactional && perRecord) {
+            throw new IllegalStateException(String.format(
+                    "spring.kafka.transaction.enabled needs spring.kafka.consumer.mode=batch or saga.envelope.enabled=true, "
+                            + "consumer mode %s with routing mode %s would run one transaction per record.",
+                    consumerMode, routingMode));
+        }
+    }
+
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
-        return new DefaultKafkaConsumerFactory<>(consumerProps());
+    public ConsumerFactory<String, Event> consumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(
+                consumerProps(),
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(eventDeserializer())
+        );
+    }
+
+    @Bean
+    public EventDeserializer eventDeserializer() {
+        return new EventDeserializer(eventCodec, jsonUtil);
+    }
+
+    @Bean
+    public ConsumerFactory<String, byte[]> byteArrayConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerProps(), new StringDeserializer(), new ByteArrayDeserializer());
+    }
+
+    @Bean
+    public ConsumerFactory<String, EventEnvelope> envelopeConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(
+                consumerProps(),
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new EventEnvelopeDeserializer(eventCodec, eventDeserializer()))
+        );
     }
 
     private Map<String, Object> consumerProps() {
         var props = new HashMap<String, Object>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, boostrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, isolationLevel);
+        props.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, SagaPartitionAssignor.class.getName());
+        props.put(SagaPartitionAssignor.INSTANCE_ID_CONFIG, instanceId);
 
         return props;
     }
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
-        return new DefaultKafkaProducerFactory<>(producerProps());
+    public ConcurrentKafkaListenerContainerFactory<String, Event> kafkaListenerContainerFactory() {
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, Event>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(listenerConcurrency);
+        factory.getContainerProperties().setObservationEnabled(listenerObservationEnabled);
+        factory.getContainerProperties().setConsumerRebalanceListener(sagaPartitionListener);
+        configureTransactions(factory);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Event> batchKafkaListenerContainerFactory() {
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, Event>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(listenerConcurrency);
+        factory.getContainerProperties().setObservationEnabled(listenerObservationEnabled);
+        factory.getContainerProperties().setConsumerRebalanceListener(sagaPartitionListener);
+        factory.setBatchListener(true);
+        configureTransactions(factory);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> byteArrayKafkaListenerContainerFactory() {
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, byte[]>();
+        factory.setConsumerFactory(byteArrayConsumerFactory());
+        factory.setConcurrency(listenerConcurrency);
+        factory.getContainerProperties().setObservationEnabled(listenerObservationEnabled);
+        factory.getContainerProperties().setConsumerRebalanceListener(sagaPartitionListener);
+        configureTransactions(factory);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EventEnvelope> envelopeKafkaListenerContainerFactory() {
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, EventEnvelope>();
+        factory.setConsumerFactory(envelopeConsumerFactory());
+        factory.setConcurrency(listenerConcurrency);
+        factory.getContainerProperties().setObservationEnabled(listenerObservationEnabled);
+        factory.getContainerProperties().setConsumerRebalanceListener(sagaPartitionListener);
+        configureTransactions(factory);
+        return factory;
+    }
+
+    /**
+     * Listener transactions span a whole poll: with a batch listener the records of one poll, the
+     * events they produce and their offsets are committed together. The in-memory saga state is not
+     * part of it, so synchronization is turned on for the registry and the parallel joins to undo
+     * their changes when the transaction aborts and the records are redelivered.
+     */
+    private void configureTransactions(ConcurrentKafkaListenerContainerFactory<String, ?> factory) {
+        if (transactional) {
+            var transactionManager = new KafkaTransactionManager<>(producerFactory());
+            transactionManager.setTransactionSynchronization(KafkaTransactionManager.SYNCHRONIZATION_ON_ACTUAL_TRANSACTION);
+            factory.getContainerProperties().setKafkaAwareTransactionManager(transactionManager);
+        }
+    }
+
+    /**
+     * Events, envelopes and forwarded bytes share one producer factory, so every template writes
+     * through the producer of the listener's transaction.
+     */
+    @Bean
+    public ProducerFactory<String, Object> producerFactory() {
+        var serializer = new DelegatingByTypeSerializer(Map.<Class<?>, Serializer<?>>of(
+                Event.class, eventSerializer(),
+                EventEnvelope.class, new EventEnvelopeSerializer(eventCodec),
+                byte[].class, new ByteArraySerializer()
+        ));
+        var factory = new DefaultKafkaProducerFactory<String, Object>(producerProps(), new StringSerializer(), serializer);
+        if (transactional) {
+            factory.setTransactionIdPrefix(transactionIdPrefix);
+        }
+        return factory;
+    }
+
+    @Bean
+    public EventSerializer eventSerializer() {
+        return new EventSerializer(eventCodec, jsonUtil, this::wireFormat);
     }
 
     private Map<String, Object> producerProps() {
         var props = new HashMap<String, Object>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, boostrapServers);
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMillis);
 
         return props;
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, Event> kafkaTemplate() {
+        return createTemplate();
     }
 
+    @Bean
+    public KafkaTemplate<String, byte[]> byteArrayKafkaTemplate() {
+        return createTemplate();
+    }
+
+    @Bean
+    public KafkaTemplate<String, EventEnvelope> envelopeKafkaTemplate() {
+        return createTemplate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> KafkaTemplate<String, V> createTemplate() {
+        var template = new KafkaTemplate<>((ProducerFactory<String, V>) (ProducerFactory<String, ?>) producerFactory());
+        // Timeouts are re-driven from the monitor thread, outside of any listener transaction.
+        template.setAllowNonTransactional(true);
+        template.setObservationEnabled(templateObservationEnabled);
+        return template;
+    }
 
     private NewTopic buildTopic(String name) {
         return TopicBuilder
                 .name(name)
                 .replicas(REPLICA_COUNT)
-                .partitions(PARTITION_COUNT)
+                .partitions(partitionCount(name))
                 .build();
     }
+
+    // The orchestrator's input topics are joined by transaction id in the Kafka Streams stores, so
+    // they must stay co-partitioned: only the default count applies to them.
+    private Integer partitionCount(String topic) {
+        var property = TOPIC_PARTITIONS_PROPERTY + topic;
+        if (environment.containsProperty(property)
+                && ORCHESTRATOR_TOPICS.stream().anyMatch(orchestratorTopic -> orchestratorTopic.getTopic().equals(topic))) {
+            throw new IllegalStateException(String.format(
+                    "%s is not allowed: topic %s is consumed by the orchestrator and uses %sdefault.",
+                    property, topic, TOPIC_PARTITIONS_PROPERTY));
+        }
+        return environment.getProperty(property, Integer.class, defaultPartitionCount);
+    }
+
+    private EWireFormat wireFormat(String topic) {
+        var format = environment.getProperty(TOPIC_WIRE_FORMAT_PROPERTY + topic, defaultWireFormat);
+        return EWireFormat.valueOf(format.trim().toUpperCase());
+    }
     @Bean
     public NewTopic startSagaTopic() {
         return buildTopic(START_SAGA.getTopic());
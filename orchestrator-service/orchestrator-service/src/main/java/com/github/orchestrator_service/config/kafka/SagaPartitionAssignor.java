@@ -0,0 +1,117 @@
+package com.github.orchestrator_service.config.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerPartitionAssignor;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Configurable;
+import org.apache.kafka.common.TopicPartition;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Gives partition {@code n} of every orchestrator topic to the same orchestrator instance. Each
+ * listener subscribes to one topic, so the default assignors would place partition {@code n} of
+ * start-saga and of the orchestrator topic on different instances, which would then both hold the
+ * sagas of that partition. Members announce the instance they run in through their subscription;
+ * partitions are spread round robin over the instances, then over the members of the instance that
+ * subscribe to the topic.
+ *
+ * <p>Only instances subscribed to every topic own partitions, one still starting its listeners
+ * takes over at the next rebalance. Assignment is eager, every partition is revoked before it moves,
+ * so no two instances hold the sagas of a partition at the same time.
+ */
+public class SagaPartitionAssignor implements ConsumerPartitionAssignor, Configurable {
+
+    public static final String INSTANCE_ID_CONFIG = "saga.instance.id";
+
+    private String instanceId;
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        instanceId = String.valueOf(configs.get(INSTANCE_ID_CONFIG));
+    }
+
+    @Override
+    public ByteBuffer subscriptionUserData(Set<String> topics) {
+        return ByteBuffer.wrap(instanceId.getBytes(UTF_8));
+    }
+
+    @Override
+    public GroupAssignment assign(Cluster metadata, GroupSubscription groupSubscription) {
+        var subscriptions = groupSubscription.groupSubscription();
+        var topics = new TreeSet<String>();
+        var members = new TreeMap<String, List<String>>();
+        for (var entry : new TreeMap<>(subscriptions).entrySet()) {
+            topics.addAll(entry.getValue().topics());
+            members.computeIfAbsent(instanceOf(entry.getKey(), entry.getValue()), instance -> new ArrayList<>())
+                    .add(entry.getKey());
+        }
+        var instances = new ArrayList<String>();
+        for (var entry : members.entrySet()) {
+            var subscribed = new TreeSet<String>();
+            entry.getValue().forEach(member -> subscribed.addAll(subscriptions.get(member).topics()));
+            if (subscribed.containsAll(topics)) {
+                instances.add(entry.getKey());
+            }
+        }
+        if (instances.isEmpty()) {
+            instances.addAll(members.keySet());
+        }
+
+        var assignments = new HashMap<String, List<TopicPartition>>();
+        subscriptions.keySet().forEach(member -> assignments.put(member, new ArrayList<>()));
+        for (var topic : topics) {
+            var partitionCount = metadata.partitionCountForTopic(topic);
+            if (partitionCount == null) {
+                continue;
+            }
+            var subscribers = new ArrayList<String>();
+            for (var member : new TreeSet<>(subscriptions.keySet())) {
+                if (subscriptions.get(member).topics().contains(topic)) {
+                    subscribers.add(member);
+                }
+            }
+            for (var partition = 0; partition < partitionCount; partition++) {
+                var candidates = new ArrayList<String>();
+                for (var member : members.get(instances.get(partition % instances.size()))) {
+                    if (subscriptions.get(member).topics().contains(topic)) {
+                        candidates.add(member);
+                    }
+                }
+                if (candidates.isEmpty()) {
+                    candidates = subscribers;
+                }
+                var member = candidates.get(partition / instances.size() % candidates.size());
+                assignments.get(member).add(new TopicPartition(topic, partition));
+            }
+        }
+
+        var result = new HashMap<String, Assignment>();
+        assignments.forEach((member, partitions) -> result.put(member, new Assignment(partitions)));
+        return new GroupAssignment(result);
+    }
+
+    // Members of an instance without the assignor's user data count as an instance of their own.
+    private static String instanceOf(String memberId, Subscription subscription) {
+        var userData = subscription.userData();
+        if (userData == null || !userData.hasRemaining()) {
+            return memberId;
+        }
+        var bytes = new byte[userData.remaining()];
+        userData.duplicate().get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    @Override
+    public String name() {
+        return "saga-co-partitioned";
+    }
+}
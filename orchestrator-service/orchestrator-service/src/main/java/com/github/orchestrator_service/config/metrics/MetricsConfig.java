@@ -0,0 +1,41 @@
+package com.github.orchestrator_service.config.metrics;
+
+import com.github.orchestrator_service.core.producer.SagaOrchestratorProducer;
+import com.github.orchestrator_service.core.saga.InFlightSagaRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes the counters the producer and the registry already keep. Listener and template timers
+ * ({@code spring.kafka.listener}, {@code spring.kafka.template}) are recorded by Spring Kafka itself
+ * once a registry is present, the saga meters live in
+ * {@link com.github.orchestrator_service.core.saga.SagaMetrics}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder sagaProducerMetrics(SagaOrchestratorProducer producer) {
+        return registry -> {
+            Gauge.builder("saga.producer.in.flight", producer, SagaOrchestratorProducer::getInFlightEvents)
+                    .description("Events sent and not acknowledged yet")
+                    .register(registry);
+            FunctionCounter.builder("saga.producer.sent", producer, SagaOrchestratorProducer::getSentEvents)
+                    .description("Events acknowledged by the broker")
+                    .register(registry);
+            FunctionCounter.builder("saga.producer.failed", producer, SagaOrchestratorProducer::getFailedEvents)
+                    .description("Events that could not be sent")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder inFlightSagaMetrics(InFlightSagaRegistry inFlightSagas) {
+        return registry -> Gauge.builder("saga.in.flight", inFlightSagas, InFlightSagaRegistry::size)
+                .description("Sagas waiting on a reply")
+                .register(registry);
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.orchestrator_service.core.consumer;
+
+import com.github.orchestrator_service.core.dto.EventEnvelope;
+import com.github.orchestrator_service.core.producer.SagaOrchestratorProducer;
+import com.github.orchestrator_service.core.service.OrchestratorService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replaces the orchestrator topic listener when {@code saga.envelope.enabled}: participants reply
+ * with one envelope per envelope they received, its events are continued together and the
+ * envelopes they produce are sent right away instead of waiting for the linger time.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+@ConditionalOnExpression("${saga.envelope.enabled:false} && '${spring.kafka.consumer.mode:record}' != 'streams'")
+public class SagaEnvelopeConsumer {
+
+    private final OrchestratorService orchestratorService;
+    private final SagaOrchestratorProducer producer;
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.orchestrator}",
+            containerFactory = "envelopeKafkaListenerContainerFactory"
+    )
+    public void consumeOrchestratorEnvelope(EventEnvelope envelope) {
+        log.info("Receiving envelope of {} events from orchestrator topic", envelope.getEvents().size());
+        try {
+            envelope.getEvents().forEach(orchestratorService::continueSaga);
+        } finally {
+            producer.flushEnvelopes();
+        }
+    }
+}
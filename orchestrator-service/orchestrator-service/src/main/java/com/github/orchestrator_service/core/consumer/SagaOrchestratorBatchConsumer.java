@@ -0,0 +1,98 @@
+package com.github.orchestrator_service.core.consumer;
+
+import com.github.orchestrator_service.config.kafka.RecordTracing;
+import com.github.orchestrator_service.core.dto.Event;
+import com.github.orchestrator_service.core.producer.SagaOrchestratorProducer;
+import com.github.orchestrator_service.core.service.OrchestratorService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Batch variant of {@link SagaOrchestratorConsumer}: a whole poll is decoded, routed and handed to
+ * the producer, which is flushed once per batch.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.consumer.mode", havingValue = "batch")
+public class SagaOrchestratorBatchConsumer {
+
+    private final OrchestratorService orchestratorService;
+    private final SagaOrchestratorProducer producer;
+    private final RecordTracing recordTracing;
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.start-saga}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumeStartSagaEvents(List<ConsumerRecord<String, Event>> records) {
+        log.info("Receiving {} events from start-saga topic", records.size());
+        route(records, orchestratorService::startSaga);
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.orchestrator}",
+            autoStartup = "#{'${saga.routing.mode:payload}' != 'header' && !${saga.envelope.enabled:false}}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumeOrchestratorEvents(List<ConsumerRecord<String, Event>> records) {
+        log.info("Receiving {} events from orchestrator topic", records.size());
+        route(records, orchestratorService::continueSaga);
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.finish-success}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumeFinishSuccessEvents(List<ConsumerRecord<String, Event>> records) {
+        log.info("Receiving {} events from finish-success topic", records.size());
+        route(records, orchestratorService::finishSagaSuccess);
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.finish-fail}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumeFinishFailEvents(List<ConsumerRecord<String, Event>> records) {
+        log.info("Receiving {} events from finish-fail topic", records.size());
+        route(records, orchestratorService::finishSagaFail);
+    }
+
+    /**
+     * A failure is reported with its index so the container commits the records routed before it
+     * and redelivers the rest. Records that could not be decoded arrive with a {@code null} value;
+     * routing stops in front of the first one. Each record is routed in its own span.
+     */
+    private void route(List<ConsumerRecord<String, Event>> records, Consumer<Event> handler) {
+        var routable = 0;
+        while (routable < records.size() && records.get(routable).value() != null) {
+            routable++;
+        }
+        var index = 0;
+        try {
+            for (; index < routable; index++) {
+                var record = records.get(index);
+                recordTracing.process(record, () -> handler.accept(record.value()));
+            }
+        } catch (Exception e) {
+            throw new BatchListenerFailedException("Failed to route saga event", e, index);
+        } finally {
+            producer.flush();
+        }
+        if (routable < records.size()) {
+            throw new BatchListenerFailedException("Failed to decode saga event", routable);
+        }
+    }
+}
@@ -2,37 +2,36 @@ package com.github.orchestrator_service.core.consumer;
 
 import com.github.orchestrator_service.core.dto.Event;
 import com.github.orchestrator_service.core.service.OrchestratorService;
-import com.github.orchestrator_service.core.utils.JsonUtil;
+import com.github.orchestrator_service.core.utils.SagaLog;
 import lombok.AllArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-@Slf4j
 @Component
 @AllArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.consumer.mode", havingValue = "record", matchIfMissing = true)
 public class SagaOrchestratorConsumer {
 
-    private final JsonUtil jsonUtil;
     private final OrchestratorService orchestratorService;
+    private final SagaLog sagaLog;
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.start-saga}"
     )
-    public void consumeStartSagaEvent(String payload) {
-        log.info("Receiving event {} from start-saga topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumeStartSagaEvent(Event event) {
+        sagaLog.received("start-saga", event);
         orchestratorService.startSaga(event);
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.orchestrator}"
+            topics = "${spring.kafka.topic.orchestrator}",
+            autoStartup = "#{'${saga.routing.mode:payload}' != 'header' && !${saga.envelope.enabled:false}}"
     )
-    public void consumeOrchestratorEvent(String payload) {
-        log.info("Receiving event {} from orchestrator topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumeOrchestratorEvent(Event event) {
+        sagaLog.received("orchestrator", event);
         orchestratorService.continueSaga(event);
     }
 
@@ -40,9 +39,8 @@ public class SagaOrchestratorConsumer {
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.finish-success}"
     )
-    public void consumeFinishSuccessEvent(String payload) {
-        log.info("Receiving event {} from finish-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumeFinishSuccessEvent(Event event) {
+        sagaLog.received("finish-success", event);
         orchestratorService.finishSagaSuccess(event);
     }
 
@@ -50,9 +48,8 @@ public class SagaOrchestratorConsumer {
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.finish-fail}"
     )
-    public void consumeFinishFailEvent(String payload) {
-        log.info("Receiving event {} from finish-fail topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumeFinishFailEvent(Event event) {
+        sagaLog.received("finish-fail", event);
         orchestratorService.finishSagaFail(event);
     }
 }
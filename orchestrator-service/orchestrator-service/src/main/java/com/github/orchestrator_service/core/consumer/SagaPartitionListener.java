@@ -0,0 +1,84 @@
+package com.github.orchestrator_service.core.consumer;
+
+import com.github.orchestrator_service.core.saga.InFlightSagaRegistry;
+import com.github.orchestrator_service.core.saga.ParallelSagaCoordinator;
+import com.github.orchestrator_service.core.saga.SagaPartitioner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Follows the partitions of the orchestrator topics this instance owns, across every listener
+ * container. The sagas of a partition are loaded from its journal when the first of its topics is
+ * assigned, before any of its records is polled, and dropped when the last one is revoked, after
+ * the offsets of the records handled so far are committed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaPartitionListener implements ConsumerAwareRebalanceListener {
+
+    private final InFlightSagaRegistry inFlightSagas;
+    private final ParallelSagaCoordinator parallelSagas;
+    private final SagaPartitioner partitioner;
+    private final Map<Integer, Set<TopicPartition>> owned = new HashMap<>();
+
+    @Override
+    public synchronized void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        for (var topicPartition : partitions) {
+            var topics = owned.computeIfAbsent(topicPartition.partition(), partition -> new HashSet<>());
+            if (topics.isEmpty()) {
+                load(topicPartition.partition());
+            }
+            topics.add(topicPartition);
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        release(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        release(partitions);
+    }
+
+    private synchronized void release(Collection<TopicPartition> partitions) {
+        for (var topicPartition : partitions) {
+            var topics = owned.get(topicPartition.partition());
+            if (topics != null && topics.remove(topicPartition) && topics.isEmpty()) {
+                owned.remove(topicPartition.partition());
+                unload(topicPartition.partition());
+            }
+        }
+    }
+
+    private void load(int partition) {
+        try {
+            inFlightSagas.load(partition);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load the sagas of partition " + partition, e);
+        }
+    }
+
+    private void unload(int partition) {
+        parallelSagas.forget(transactionId -> partitioner.partitionOf(transactionId) == partition);
+        try {
+            inFlightSagas.unload(partition);
+        } catch (IOException e) {
+            log.error("Failed to close the saga journal of partition {}: {}", partition, e.getMessage());
+        }
+    }
+}
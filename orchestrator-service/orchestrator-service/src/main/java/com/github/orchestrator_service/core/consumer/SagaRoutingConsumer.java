@@ -0,0 +1,78 @@
+package com.github.orchestrator_service.core.consumer;
+
+import com.github.orchestrator_service.config.kafka.EventDeserializer;
+import com.github.orchestrator_service.config.kafka.SagaHeaders;
+import com.github.orchestrator_service.core.enums.EEventSource;
+import com.github.orchestrator_service.core.enums.ESagaStatus;
+import com.github.orchestrator_service.core.service.OrchestratorService;
+import com.github.orchestrator_service.core.utils.SagaLog;
+import lombok.AllArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Replaces the orchestrator topic listener when {@code saga.routing.mode=header}: participant
+ * replies are routed from their record headers and forwarded without decoding the value. Replies
+ * without usable headers, or carrying more history than {@code saga.history.max-entries}, fall back
+ * to the regular decode-and-continue path, which caps the history.
+ */
+@Component
+@AllArgsConstructor
+@ConditionalOnExpression("'${saga.routing.mode:payload}' == 'header' && !${saga.envelope.enabled:false} && '${spring.kafka.consumer.mode:record}' != 'streams'")
+public class SagaRoutingConsumer {
+
+    private final OrchestratorService orchestratorService;
+    private final EventDeserializer eventDeserializer;
+    private final SagaLog sagaLog;
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.orchestrator}",
+            containerFactory = "byteArrayKafkaListenerContainerFactory"
+    )
+    public void consumeOrchestratorEvent(ConsumerRecord<String, byte[]> record) {
+        var transactionId = header(record, SagaHeaders.TRANSACTION_ID);
+        var source = toEnum(EEventSource.class, header(record, SagaHeaders.SOURCE));
+        var status = toEnum(ESagaStatus.class, header(record, SagaHeaders.STATUS));
+        var historySize = toInt(header(record, SagaHeaders.HISTORY_SIZE));
+        if (transactionId != null && source != null && status != null && historySize >= 0
+                && orchestratorService.forwardSaga(transactionId, source, status, historySize, record.value())) {
+            return;
+        }
+        var event = eventDeserializer.deserialize(record.topic(), record.value());
+        sagaLog.received("orchestrator", event);
+        orchestratorService.continueSaga(event);
+    }
+
+    private static String header(ConsumerRecord<String, byte[]> record, String name) {
+        var header = record.headers().lastHeader(name);
+        return header == null ? null : new String(header.value(), UTF_8);
+    }
+
+    // -1 for a missing or malformed header.
+    private static int toInt(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static <E extends Enum<E>> E toEnum(Class<E> type, String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
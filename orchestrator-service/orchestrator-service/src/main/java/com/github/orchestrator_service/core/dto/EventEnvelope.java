@@ -0,0 +1,20 @@
+package com.github.orchestrator_service.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Several saga events carried by a single Kafka record, always in the binary wire format.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventEnvelope {
+
+    private List<Event> events;
+}
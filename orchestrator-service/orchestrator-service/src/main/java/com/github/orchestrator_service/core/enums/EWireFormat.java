@@ -0,0 +1,6 @@
+package com.github.orchestrator_service.core.enums;
+
+public enum EWireFormat {
+    JSON,
+    BINARY
+}
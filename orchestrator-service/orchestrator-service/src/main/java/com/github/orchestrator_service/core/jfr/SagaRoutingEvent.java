@@ -0,0 +1,33 @@
+package com.github.orchestrator_service.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Handling of one saga event by the orchestrator: the routing decision plus the bookkeeping and
+ * sends it triggers, without waiting for the acknowledgements.
+ */
+@Name("saga.Routing")
+@Label("Saga Routing")
+@Category("Saga")
+@Description("Routing of a saga event by the orchestrator")
+@StackTrace(false)
+@Threshold("1 ms")
+public class SagaRoutingEvent extends jdk.jfr.Event {
+
+    @Label("Transaction Id")
+    public String transactionId;
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Source")
+    public String source;
+
+    @Label("Status")
+    public String status;
+}
@@ -0,0 +1,409 @@
+package com.github.orchestrator_service.core.journal;
+
+import com.github.orchestrator_service.core.enums.EEventSource;
+import com.github.orchestrator_service.core.enums.ESagaStatus;
+import com.github.orchestrator_service.core.enums.ETopics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Append-only binary journal of saga transitions written through memory-mapped segment files.
+ * Appends are plain memory writes that return the journal sequence they end at; a transition is
+ * only durable once {@link #awaitDurable(long)} returned for that sequence. Waiters wake the flusher
+ * thread, which forces everything appended so far in a single fsync, so transitions appended while
+ * a force is running are covered together by the next one (group commit).
+ *
+ * <p>Record layout: {@code int length | int crc32c | byte source | byte status | byte topic |
+ * long timestamp | short+bytes transactionId | short+bytes orderId | short+bytes eventId}. A zero length marks the end of the written part of a segment.
+ *
+ * <p>The journal knows which segment holds the latest record of every saga still in flight. When
+ * a segment rolls, older segments holding none of those records are deleted; a segment stays as
+ * long as one of its sagas runs, however old it is.
+ *
+ * <p>There is one journal per partition of the orchestrator topics, opened by {@link SagaJournals}
+ * while the instance owns the partition.
+ */
+@Slf4j
+public class SagaJournal {
+
+    private static final String SEGMENT_PREFIX = "saga-journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final byte NONE = -1;
+
+    private static final EEventSource[] SOURCES = EEventSource.values();
+    private static final ESagaStatus[] STATUSES = ESagaStatus.values();
+    private static final ETopics[] TOPICS = ETopics.values();
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final CRC32C crc = new CRC32C();
+    private final Map<String, Long> liveSegments = new HashMap<>();
+    private final Map<Long, Integer> liveRecords = new HashMap<>();
+    private Thread flusher;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentSequence;
+    private long recoveredSequence;
+    private int forcedPosition;
+    private long appendedSequence;
+    private long requestedSequence;
+    private long durableSequence;
+    private RuntimeException flushFailure;
+    private boolean closed;
+
+    public SagaJournal(Path directory, int segmentSize) {
+        this(true, directory, segmentSize);
+    }
+
+    private SagaJournal(boolean enabled, Path directory, int segmentSize) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    // Appends nothing and recovers nothing.
+    static SagaJournal disabled() {
+        return new SagaJournal(false, null, 0);
+    }
+
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        var segments = listSegments();
+        segmentSequence = segments.isEmpty() ? 0 : sequenceOf(segments.get(segments.size() - 1));
+        recoveredSequence = segmentSequence;
+        flusher = new Thread(this::runFlusher, "saga-journal-flusher-" + directory.getFileName());
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public void close() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            closed = true;
+            flush();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Replays every segment in order and returns the last record of each saga that has not finished.
+     * The journal is then compacted: those records are rewritten into a fresh segment and the
+     * replayed segments are deleted.
+     */
+    public Collection<SagaJournalRecord> recover() throws IOException {
+        if (!enabled) {
+            return List.of();
+        }
+        var segments = listSegments();
+        var inFlight = new LinkedHashMap<String, SagaJournalRecord>();
+        var replayed = 0L;
+        for (var path : segments) {
+            replayed += replay(path, record -> {
+                if (record.isFinished()) {
+                    inFlight.remove(record.transactionId());
+                } else {
+                    inFlight.put(record.transactionId(), record);
+                }
+            });
+        }
+        log.info("Replayed {} saga journal records from {} segments, {} sagas in flight",
+                replayed, segments.size(), inFlight.size());
+        synchronized (this) {
+            roll();
+            inFlight.values().forEach(this::append);
+            flush();
+        }
+        for (var path : segments) {
+            Files.deleteIfExists(path);
+        }
+        return inFlight.values();
+    }
+
+    /**
+     * Writes the record and returns the sequence to pass to {@link #awaitDurable(long)} before the
+     * transition is acted upon. Does not wait, so it can be called while holding a lock.
+     */
+    public synchronized long append(SagaJournalRecord record) {
+        if (!enabled) {
+            return 0;
+        }
+        if (closed) {
+            throw new IllegalStateException("Saga journal " + directory + " is closed.");
+        }
+        var transactionId = bytes(record.transactionId());
+        var orderId = bytes(record.orderId());
+        var eventId = bytes(record.eventId());
+        var bodySize = 3 + Long.BYTES + 3 * Short.BYTES + transactionId.length + orderId.length + eventId.length;
+        ensureCapacity(HEADER_SIZE + bodySize);
+
+        var start = segment.position();
+        segment.position(start + HEADER_SIZE);
+        segment.put(ordinal(record.source()));
+        segment.put(ordinal(record.status()));
+        segment.put(ordinal(record.nextTopic()));
+        segment.putLong(record.timestampMillis());
+        putBytes(transactionId);
+        putBytes(orderId);
+        putBytes(eventId);
+
+        crc.reset();
+        crc.update(segment.slice(start + HEADER_SIZE, bodySize));
+        segment.putInt(start + Integer.BYTES, (int) crc.getValue());
+        segment.putInt(start, bodySize);
+        trackLive(record);
+        appendedSequence += HEADER_SIZE + bodySize;
+        return appendedSequence;
+    }
+
+    /**
+     * Blocks until every record up to {@code sequence} is on disk. Callers waiting at the same time
+     * share the fsync that covers them.
+     */
+    public void awaitDurable(long sequence) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            if (sequence > requestedSequence) {
+                requestedSequence = sequence;
+                notifyAll();
+            }
+            while (durableSequence < sequence) {
+                if (flushFailure != null) {
+                    throw new IllegalStateException("Failed to flush saga journal", flushFailure);
+                }
+                if (closed) {
+                    throw new IllegalStateException("Saga journal closed before the record was flushed.");
+                }
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the saga journal", e);
+                }
+            }
+        }
+    }
+
+    // Moves the saga's latest record to the active segment, or drops it once the saga finished.
+    private void trackLive(SagaJournalRecord record) {
+        var previous = record.isFinished()
+                ? liveSegments.remove(record.transactionId())
+                : liveSegments.put(record.transactionId(), segmentSequence);
+        if (previous != null) {
+            liveRecords.computeIfPresent(previous, (sequence, count) -> count == 1 ? null : count - 1);
+        }
+        if (!record.isFinished()) {
+            liveRecords.merge(segmentSequence, 1, Integer::sum);
+        }
+    }
+
+    // Forces outside of the monitor, so appends go on while the disk works and join the next round.
+    private void runFlusher() {
+        while (true) {
+            MappedByteBuffer target;
+            int from;
+            int to;
+            long sequence;
+            synchronized (this) {
+                while (!closed && requestedSequence <= durableSequence) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                target = segment;
+                from = forcedPosition;
+                to = segment.position();
+                sequence = appendedSequence;
+            }
+            RuntimeException failure = null;
+            try {
+                target.force(from, to - from);
+            } catch (RuntimeException e) {
+                log.error("Failed to flush saga journal", e);
+                failure = e;
+            }
+            synchronized (this) {
+                flushFailure = failure;
+                if (failure == null) {
+                    durableSequence = Math.max(durableSequence, sequence);
+                    if (target == segment) {
+                        forcedPosition = Math.max(forcedPosition, to);
+                    }
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    // Earlier segments were forced when they rolled, so the active one holds all that is not durable.
+    private synchronized void flush() {
+        if (segment != null && segment.position() > forcedPosition) {
+            var position = segment.position();
+            segment.force(forcedPosition, position - forcedPosition);
+            forcedPosition = position;
+        }
+        durableSequence = appendedSequence;
+        notifyAll();
+    }
+
+    private long replay(Path path, Consumer<SagaJournalRecord> visitor) throws IOException {
+        try (var file = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+            var checksum = new CRC32C();
+            var records = 0L;
+            while (buffer.remaining() >= HEADER_SIZE) {
+                var start = buffer.position();
+                var bodySize = buffer.getInt();
+                var expectedCrc = buffer.getInt();
+                if (bodySize <= 0) {
+                    break;
+                }
+                if (bodySize > buffer.remaining()) {
+                    log.warn("Truncated saga journal record at {}:{}", path.getFileName(), start);
+                    break;
+                }
+                checksum.reset();
+                checksum.update(buffer.slice(buffer.position(), bodySize));
+                if ((int) checksum.getValue() != expectedCrc) {
+                    log.warn("Corrupted saga journal record at {}:{}", path.getFileName(), start);
+                    break;
+                }
+                visitor.accept(read(buffer, buffer.position() + bodySize));
+                records++;
+            }
+            return records;
+        }
+    }
+
+    private SagaJournalRecord read(ByteBuffer buffer, int end) {
+        var source = buffer.get();
+        var status = buffer.get();
+        var topic = buffer.get();
+        var timestamp = buffer.getLong();
+        var transactionId = getString(buffer);
+        var orderId = getString(buffer);
+        var eventId = getString(buffer);
+        buffer.position(end);
+        return new SagaJournalRecord(
+                transactionId,
+                orderId,
+                eventId,
+                source == NONE ? null : SOURCES[source],
+                status == NONE ? null : STATUSES[status],
+                topic == NONE ? null : TOPICS[topic],
+                timestamp);
+    }
+
+    private void ensureCapacity(int recordSize) {
+        if (recordSize + HEADER_SIZE > segmentSize) {
+            throw new IllegalArgumentException("Saga journal record larger than a segment.");
+        }
+        if (segment == null || segment.remaining() < recordSize + HEADER_SIZE) {
+            roll();
+        }
+    }
+
+    private void roll() {
+        try {
+            flush();
+            if (channel != null) {
+                channel.close();
+            }
+            segmentSequence++;
+            var path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segmentSequence, SEGMENT_SUFFIX));
+            channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            forcedPosition = 0;
+            deleteDeadSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll saga journal segment", e);
+        }
+    }
+
+    // Segments left by the previous run are deleted by recover() once their sagas were rewritten.
+    private void deleteDeadSegments() throws IOException {
+        for (var path : listSegments()) {
+            var sequence = sequenceOf(path);
+            if (sequence > recoveredSequence && sequence != segmentSequence && !liveRecords.containsKey(sequence)) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        var segments = new ArrayList<Path>();
+        try (var files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            files.forEach(segments::add);
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private static long sequenceOf(Path path) {
+        var name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private void putBytes(byte[] value) {
+        segment.putShort((short) value.length);
+        segment.put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        var value = new byte[buffer.getShort() & 0xFFFF];
+        if (value.length == 0) {
+            return null;
+        }
+        buffer.get(value);
+        return new String(value, UTF_8);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(UTF_8);
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? NONE : (byte) value.ordinal();
+    }
+}
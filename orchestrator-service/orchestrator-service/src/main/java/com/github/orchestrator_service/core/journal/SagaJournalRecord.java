@@ -0,0 +1,22 @@
+package com.github.orchestrator_service.core.journal;
+
+import com.github.orchestrator_service.core.enums.EEventSource;
+import com.github.orchestrator_service.core.enums.ESagaStatus;
+import com.github.orchestrator_service.core.enums.ETopics;
+
+/**
+ * One saga transition as stored in the journal. {@code nextTopic} is {@code null} for records that
+ * mark the saga as finished.
+ */
+public record SagaJournalRecord(String transactionId,
+                                String orderId,
+                                String eventId,
+                                EEventSource source,
+                                ESagaStatus status,
+                                ETopics nextTopic,
+                                long timestampMillis) {
+
+    public boolean isFinished() {
+        return nextTopic == null;
+    }
+}
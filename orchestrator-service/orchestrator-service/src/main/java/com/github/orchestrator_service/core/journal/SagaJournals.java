@@ -0,0 +1,34 @@
+package com.github.orchestrator_service.core.journal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Opens the journal of a partition in {@code saga.journal.directory/partition-<n>}. The instance
+ * that takes a partition over replays the journal its previous owner left, so with several
+ * orchestrator instances the directory has to be shared by all of them.
+ */
+@Component
+public class SagaJournals {
+
+    @Value("${saga.journal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${saga.journal.directory:./data/saga-journal}")
+    private Path directory;
+
+    @Value("${saga.journal.segment-size-bytes:67108864}")
+    private int segmentSize;
+
+    public SagaJournal open(int partition) throws IOException {
+        if (!enabled) {
+            return SagaJournal.disabled();
+        }
+        var journal = new SagaJournal(directory.resolve("partition-" + partition), segmentSize);
+        journal.open();
+        return journal;
+    }
+}
@@ -1,26 +1,240 @@
 package com.github.orchestrator_service.core.producer;
 
-import lombok.AllArgsConstructor;
+import com.github.orchestrator_service.core.dto.Event;
+import com.github.orchestrator_service.core.dto.EventEnvelope;
+import com.github.orchestrator_service.core.enums.ETopics;
+import com.github.orchestrator_service.core.jfr.SagaProduceEvent;
+import com.github.orchestrator_service.core.utils.SagaLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static com.github.orchestrator_service.core.saga.SagaHandler.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Sends are asynchronous but bounded: each one holds a permit of the in-flight window until its
+ * completion callback runs, so a slow broker blocks the calling listener instead of piling records
+ * up in the producer buffer.
+ *
+ * <p>With {@code saga.envelope.enabled} events bound for a participant are coalesced per topic and
+ * partition into one {@link EventEnvelope}, sent when it is full, when the linger time passes or on
+ * {@link #flush()}. Events sent inside a Kafka transaction are never buffered, an envelope must not
+ * outlive the transaction of its events.
+ */
 @Slf4j
 @Component
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class SagaOrchestratorProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private static final Set<String> PARTICIPANT_TOPICS = Arrays.stream(SAGA_PARTICIPANTS)
+            .flatMap(row -> Arrays.stream(new Object[]{row[PARTICIPANT_SUCCESS_TOPIC_INDEX], row[PARTICIPANT_FAIL_TOPIC_INDEX]}))
+            .map(topic -> ((ETopics) topic).getTopic())
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final KafkaTemplate<String, Event> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> byteArrayKafkaTemplate;
+    private final KafkaTemplate<String, EventEnvelope> envelopeKafkaTemplate;
+    private final SagaLog sagaLog;
+
+    @Value("${spring.kafka.producer.max-in-flight:1000}")
+    private int maxInFlight;
+
+    @Value("${spring.kafka.producer.window-timeout-ms:30000}")
+    private long windowTimeoutMillis;
+
+    @Value("${saga.envelope.enabled:false}")
+    private boolean envelopeEnabled;
+
+    @Value("${saga.envelope.max-events:100}")
+    private int envelopeMaxEvents;
+
+    @Value("${saga.envelope.linger-ms:5}")
+    private long envelopeLingerMillis;
+
+    private final Map<TopicPartition, List<Event>> envelopes = new HashMap<>();
+    private final Map<String, Integer> partitionCounts = new ConcurrentHashMap<>();
+    private ScheduledExecutorService envelopeFlusher;
+
+    private final LongAdder sentEvents = new LongAdder();
+    private final LongAdder failedEvents = new LongAdder();
+    private Semaphore inFlight;
+
+    @PostConstruct
+    void init() {
+        inFlight = new Semaphore(maxInFlight);
+        if (envelopeEnabled) {
+            envelopeFlusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "saga-envelope-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            envelopeFlusher.scheduleAtFixedRate(this::lingerFlush, envelopeLingerMillis, envelopeLingerMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (envelopeFlusher != null) {
+            envelopeFlusher.shutdownNow();
+            flushEnvelopes();
+        }
+    }
+
+    public void sendEvent(String key, Event event, String topic) {
+        if (envelopeEnabled && key != null && PARTICIPANT_TOPICS.contains(topic) && !kafkaTemplate.inTransaction()) {
+            sagaLog.buffering(topic, event);
+            addToEnvelope(key, event, topic);
+            return;
+        }
+        sagaLog.sending(topic, event);
+        acquirePermit(topic);
+        send(kafkaTemplate, null, key, event, topic);
+    }
+
+    /**
+     * Forwards an already serialized event as is, used when the next topic was resolved from the
+     * record headers.
+     */
+    public void forwardEvent(String key, byte[] value, String topic) {
+        log.info("Forwarding event of transaction {} to Kafka topic {}", key, topic);
+        acquirePermit(topic);
+        send(byteArrayKafkaTemplate, null, key, value, topic);
+    }
+
+    public void flush() {
+        flushEnvelopes();
+        kafkaTemplate.flush();
+        byteArrayKafkaTemplate.flush();
+        envelopeKafkaTemplate.flush();
+    }
+
+    /**
+     * Sends every buffered envelope without waiting for the linger time or for the sends to complete.
+     */
+    public void flushEnvelopes() {
+        Map<TopicPartition, List<Event>> ready;
+        synchronized (envelopes) {
+            if (envelopes.isEmpty()) {
+                return;
+            }
+            ready = new HashMap<>(envelopes);
+            envelopes.clear();
+        }
+        ready.forEach(this::sendEnvelope);
+    }
+
+    public int getInFlightEvents() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    public long getSentEvents() {
+        return sentEvents.sum();
+    }
+
+    public long getFailedEvents() {
+        return failedEvents.sum();
+    }
+
+    // Same partition the default partitioner picks for the key, so a saga keeps its partition.
+    private void addToEnvelope(String key, Event event, String topic) {
+        var partitions = partitionCounts.computeIfAbsent(topic, name -> kafkaTemplate.partitionsFor(name).size());
+        var partition = new TopicPartition(topic, Utils.toPositive(Utils.murmur2(key.getBytes(UTF_8))) % partitions);
+        List<Event> full = null;
+        synchronized (envelopes) {
+            var events = envelopes.computeIfAbsent(partition, ignored -> new ArrayList<>());
+            events.add(event);
+            if (events.size() >= envelopeMaxEvents) {
+                full = envelopes.remove(partition);
+            }
+        }
+        if (full != null) {
+            sendEnvelope(partition, full);
+        }
+    }
+
+    private void sendEnvelope(TopicPartition partition, List<Event> events) {
+        log.info("Sending envelope of {} events to Kafka topic {} partition {}", events.size(), partition.topic(), partition.partition());
+        acquirePermit(partition.topic());
+        send(envelopeKafkaTemplate, partition.partition(), null, new EventEnvelope(events), partition.topic());
+    }
 
-    public void sendEvent(String payload, String topic) {
-        try{
-            log.info("Sending event to Kafka topic {}: {}", topic, payload);
-            kafkaTemplate.send(topic, payload);
+    private void lingerFlush() {
+        try {
+            flushEnvelopes();
         } catch (Exception e) {
-            log.error("Failed to send event to Kafka topic {}: {}", topic, e.getMessage());
+            log.error("Failed to flush saga envelopes: {}", e.getMessage());
         }
     }
 
+    private void acquirePermit(String topic) {
+        try {
+            if (!inFlight.tryAcquire(windowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Producer window to topic " + topic + " is full.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for producer window to topic " + topic, e);
+        }
+    }
+
+    private <V> void send(KafkaTemplate<String, V> template, Integer partition, String key, V value, String topic) {
+        var produce = new SagaProduceEvent();
+        produce.begin();
+        try {
+            template
+                    .send(topic, partition, key, value)
+                    .whenComplete((result, error) -> {
+                        recordProduce(produce, key, topic, error == null);
+                        onCompletion(key, topic, error);
+                    });
+        } catch (Exception e) {
+            recordProduce(produce, key, topic, false);
+            onCompletion(key, topic, e);
+        }
+    }
+
+    // Sends slower than the JFR threshold are recorded as saga.Produce events.
+    private static void recordProduce(SagaProduceEvent produce, String key, String topic, boolean succeeded) {
+        produce.end();
+        if (produce.shouldCommit()) {
+            produce.transactionId = key;
+            produce.topic = topic;
+            produce.succeeded = succeeded;
+            produce.commit();
+        }
+    }
+
+    // The idempotent producer retries on its own until delivery-timeout-ms. A send that fails after
+    // that may still have reached the broker, so it is reported as failed rather than sent again.
+    // Inside a listener transaction the failure also aborts it and the records are redelivered.
+    private void onCompletion(String key, String topic, Throwable error) {
+        if (error == null) {
+            sentEvents.increment();
+        } else {
+            failedEvents.increment();
+            log.error("Failed to send event to Kafka topic {} for key {}: {}", topic, key, error.getMessage());
+        }
+        inFlight.release();
+    }
 }
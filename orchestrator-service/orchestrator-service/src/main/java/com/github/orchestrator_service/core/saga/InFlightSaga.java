@@ -0,0 +1,39 @@
+package com.github.orchestrator_service.core.saga;
+
+import com.github.orchestrator_service.core.dto.History;
+import com.github.orchestrator_service.core.enums.ETopics;
+
+import java.util.List;
+
+/**
+ * Compact registry entry for a saga waiting on a reply. It doubles as the node of the intrusive
+ * bucket list in {@link SagaTimingWheel}, so tracking a saga costs a single object.
+ */
+final class InFlightSaga {
+
+    final SagaPartition partition;
+    final String transactionId;
+    final String orderId;
+    final String eventId;
+    ETopics pendingTopic;
+    int attempts;
+    long dispatchedAtMillis;
+    List<History> history;
+
+    long deadlineTick;
+    long remainingRounds;
+    int bucket = -1;
+    InFlightSaga previous;
+    InFlightSaga next;
+
+    InFlightSaga(SagaPartition partition, String transactionId, String orderId, String eventId) {
+        this.partition = partition;
+        this.transactionId = transactionId;
+        this.orderId = orderId;
+        this.eventId = eventId;
+    }
+
+    boolean isScheduled() {
+        return bucket >= 0;
+    }
+}
@@ -0,0 +1,439 @@
+package com.github.orchestrator_service.core.saga;
+
+import com.github.orchestrator_service.core.dto.Event;
+import com.github.orchestrator_service.core.dto.History;
+import com.github.orchestrator_service.core.enums.EEventSource;
+import com.github.orchestrator_service.core.enums.ESagaStatus;
+import com.github.orchestrator_service.core.enums.ETopics;
+import com.github.orchestrator_service.core.journal.SagaJournal;
+import com.github.orchestrator_service.core.journal.SagaJournalRecord;
+import com.github.orchestrator_service.core.journal.SagaJournals;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Sagas the orchestrator has routed and is still waiting on, keyed by transaction id. Deadlines
+ * live in a {@link SagaTimingWheel} instead of one scheduled task per saga. Every change is appended
+ * to a {@link SagaJournal}, which rebuilds the registry after a restart.
+ *
+ * <p>State is held per partition of the orchestrator topics, each with its own journal. Those topics
+ * are co-partitioned by transaction id, so all records of a saga land on the same partition number,
+ * see {@link SagaPartitioner}. A partition is loaded from its journal when this instance is assigned
+ * it and dropped when it is revoked, see {@link #load(int)} and {@link #unload(int)}; several
+ * orchestrator instances each hold the sagas of the partitions they own.
+ *
+ * <p>An entry holds the ids, the pending topic, the attempts and the deadline of its saga, no
+ * payload. A timeout rebuilds its event from the ids, which is all a participant needs to
+ * compensate; the order service keeps the products it stored when the saga started.
+ *
+ * <p>Each saga is changed under its own lock, so hops of different sagas do not wait on each other.
+ * The timing wheel and the finished sets have their own locks, always taken after the saga's.
+ *
+ * <p>Replies are only accepted while the saga waits on the topic they answer. A reply arriving after
+ * a timeout moved the saga on, or after it finished, is refused so it cannot race the compensation
+ * or revive the saga. An accepted reply starts the attempts of the next hop from zero.
+ *
+ * <p>Every method returns only once the journal record of its change is on disk, so nothing is
+ * sent, and no offset acknowledged, for a transition a crash could lose. The wait happens outside of
+ * the saga lock, callers on other threads share the fsync, see {@link SagaJournal}.
+ *
+ * <p>Changes made while a listener transaction is open are undone if it does not commit, see
+ * {@link SagaStateRollback}: the records are redelivered and must find the saga where it was.
+ *
+ * <p>The ids of the last {@code saga.in-flight.finished-capacity} finished sagas are kept, spread over
+ * the partitions and in memory only, so a start-saga event published twice does not run its saga
+ * again.
+ *
+ * <p>With {@code saga.history.mode=delta} the registry also keeps the history of each saga, so
+ * events travel with only the entries added since the last hop. The journal does not hold history,
+ * sagas recovered after a restart finish with the entries written from then on.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InFlightSagaRegistry {
+
+    private static final long REFUSED = -1;
+
+    private final SagaJournals journals;
+    private final SagaPartitioner partitioner;
+    private final SagaMetrics metrics;
+    private final SagaExecutionController executionController;
+
+    @Value("${saga.in-flight.timeout-ms:30000}")
+    private long timeoutMillis;
+
+    @Value("${saga.in-flight.tick-ms:100}")
+    private long tickMillis;
+
+    @Value("${saga.in-flight.wheel-size:1024}")
+    private int wheelSize;
+
+    @Value("${saga.in-flight.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${saga.in-flight.initial-capacity:65536}")
+    private int initialCapacity;
+
+    @Value("${saga.in-flight.finished-capacity:100000}")
+    private int finishedCapacity;
+
+    @Value("${saga.history.mode:full}")
+    private String historyMode;
+
+    @Value("${saga.history.max-entries:50}")
+    private int maxHistoryEntries;
+
+    private final Map<Integer, SagaPartition> partitions = new ConcurrentHashMap<>();
+    private SagaTimingWheel wheel;
+
+    @PostConstruct
+    void init() {
+        wheel = new SagaTimingWheel(wheelSize, tickMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * Rebuilds the sagas of a partition assigned to this instance from its journal. The journal was
+     * left by the previous owner of the partition, or by this instance before a restart.
+     */
+    public void load(int partition) throws IOException {
+        if (partitions.containsKey(partition)) {
+            return;
+        }
+        var partitionCount = partitioner.partitionCount();
+        var journal = journals.open(partition);
+        var owned = new SagaPartition(partition, journal, Math.max(16, initialCapacity / partitionCount),
+                Math.max(1, finishedCapacity / partitionCount));
+        try {
+            for (var record : journal.recover()) {
+                var saga = new InFlightSaga(owned, record.transactionId(), record.orderId(), record.eventId());
+                saga.pendingTopic = record.nextTopic();
+                saga.dispatchedAtMillis = record.timestampMillis();
+                owned.sagas.put(saga.transactionId, saga);
+            }
+        } catch (IOException | RuntimeException e) {
+            journal.close();
+            throw e;
+        }
+        // Registered before scheduling, a deadline the wheel lets go of right away must find its saga.
+        partitions.put(partition, owned);
+        for (var saga : owned.sagas.values()) {
+            synchronized (saga) {
+                schedule(saga, saga.dispatchedAtMillis + timeoutMillis);
+            }
+        }
+        log.info("Recovered {} in-flight sagas of partition {}", owned.sagas.size(), partition);
+    }
+
+    /**
+     * Drops the sagas of a partition revoked from this instance and closes its journal, which the
+     * next owner of the partition replays. A change still running for one of them fails on the
+     * closed journal, its record is redelivered to the next owner.
+     */
+    public void unload(int partition) throws IOException {
+        var owned = partitions.remove(partition);
+        if (owned == null) {
+            return;
+        }
+        for (var saga : owned.sagas.values()) {
+            synchronized (saga) {
+                cancel(saga);
+            }
+        }
+        owned.journal.close();
+        log.info("Released {} in-flight sagas of partition {}", owned.sagas.size(), partition);
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        for (var partition : List.copyOf(partitions.keySet())) {
+            unload(partition);
+        }
+    }
+
+    /**
+     * Whether the saga is running or finished recently. The outbox of the order service publishes at
+     * least once, a start-saga event seen again must not run the saga a second time.
+     */
+    public boolean isKnown(String transactionId) {
+        var owned = partitionOf(transactionId);
+        return owned != null && (owned.sagas.containsKey(transactionId) || owned.isFinished(transactionId));
+    }
+
+    /**
+     * Registers a hop the orchestrator takes on its own: the start of the saga or a parallel
+     * dispatch. In delta mode the history carried by the event moves into the registry and
+     * the event leaves without it, otherwise it is only capped.
+     */
+    public void track(Event event, ETopics topic) {
+        var sequence = REFUSED;
+        InFlightSaga saga = null;
+        while (sequence == REFUSED) {
+            var owned = partitionOf(event.getTransactionId());
+            if (owned == null) {
+                throw new IllegalStateException("Partition of saga " + event.getTransactionId()
+                        + " is not owned by this instance.");
+            }
+            saga = owned.sagas.computeIfAbsent(event.getTransactionId(),
+                    transactionId -> new InFlightSaga(owned, transactionId, event.getOrderId(), event.getId()));
+            // The saga may have finished between the lookup and the lock, a new entry is then created.
+            synchronized (saga) {
+                if (isRegistered(saga)) {
+                    sequence = advance(saga, event, topic, true);
+                }
+            }
+        }
+        saga.partition.journal.awaitDurable(sequence);
+    }
+
+    /**
+     * Registers the hop answering a participant reply. Returns {@code false}, leaving the registry
+     * untouched, when the saga is not registered or is not waiting on the topic the reply answers.
+     */
+    public boolean trackReply(Event event, ETopics topic) {
+        return update(event.getTransactionId(), saga -> {
+            if (!executionController.isReplyTo(saga.pendingTopic, event.getSource(), event.getStatus())) {
+                return REFUSED;
+            }
+            return advance(saga, event, topic, true);
+        });
+    }
+
+    /**
+     * Registers a timed out hop that is sent again. Returns {@code false} when a reply moved the
+     * saga on, or finished it, after the timeout was collected.
+     */
+    public boolean retry(Event event, ETopics topic) {
+        return update(event.getTransactionId(),
+                saga -> saga.pendingTopic == topic ? advance(saga, event, topic, false) : REFUSED);
+    }
+
+    // A retry keeps counting the attempts of the hop, any other hop starts them over.
+    private long advance(InFlightSaga saga, Event event, ETopics topic, boolean newHop) {
+        undoOnRollback(saga);
+        if (newHop) {
+            saga.attempts = 0;
+        }
+        saga.pendingTopic = topic;
+        if (isDeltaHistory()) {
+            saga.history = capHistory(merge(saga.history, event.getEventHistory()));
+            event.setEventHistory(null);
+        } else {
+            event.setEventHistory(capHistory(event.getEventHistory()));
+        }
+        return dispatch(saga, event.getSource(), event.getStatus(), topic);
+    }
+
+    /**
+     * Variant of {@link #trackReply(Event, ETopics)} for replies routed from their headers, whose
+     * history stays in the forwarded bytes.
+     */
+    public boolean trackReply(String transactionId, EEventSource source, ESagaStatus status, ETopics topic) {
+        return update(transactionId, saga -> {
+            if (!executionController.isReplyTo(saga.pendingTopic, source, status)) {
+                return REFUSED;
+            }
+            undoOnRollback(saga);
+            saga.attempts = 0;
+            saga.pendingTopic = topic;
+            return dispatch(saga, source, status, topic);
+        });
+    }
+
+    /**
+     * Forgets the saga if it still waits on {@code pendingTopic}: the finish topic the event came
+     * from, or the topic a saga out of timeout attempts gave up on. Returns {@code false} otherwise,
+     * the saga already finished or the event is stale. In delta mode the stored history is put back in
+     * front of the entries the event carries, so the final notification holds the whole (capped)
+     * history.
+     */
+    public boolean complete(Event event, ETopics pendingTopic) {
+        return update(event.getTransactionId(), saga -> {
+            if (saga.pendingTopic != pendingTopic) {
+                return REFUSED;
+            }
+            undoOnRollback(saga);
+            saga.partition.sagas.remove(saga.transactionId);
+            saga.partition.markFinished(saga.transactionId, true);
+            var now = System.currentTimeMillis();
+            cancel(saga);
+            metrics.recordStep(event.getSource(), event.getStatus(), now - saga.dispatchedAtMillis);
+            if (isDeltaHistory()) {
+                event.setEventHistory(capHistory(merge(saga.history, event.getEventHistory())));
+            } else {
+                event.setEventHistory(capHistory(event.getEventHistory()));
+            }
+            return saga.partition.journal.append(new SagaJournalRecord(event.getTransactionId(),
+                    event.getOrderId(), event.getId(), event.getSource(), event.getStatus(), null, now));
+        });
+    }
+
+    /**
+     * Collects every saga whose deadline passed. Expired sagas stay registered so the retry or the
+     * compensation that follows re-arms them; a retry keeps counting the attempts of its hop. A saga
+     * a reply moved on, or finished, after the wheel let it go is skipped, and so is one whose
+     * partition was revoked.
+     */
+    public List<SagaTimeout> expire(long nowMillis) {
+        var expired = new ArrayList<InFlightSaga>();
+        synchronized (wheel) {
+            wheel.advance(nowMillis, expired::add);
+        }
+        var timeouts = new ArrayList<SagaTimeout>(expired.size());
+        for (var saga : expired) {
+            synchronized (saga) {
+                if (!isRegistered(saga) || isScheduled(saga)) {
+                    continue;
+                }
+                saga.attempts++;
+                timeouts.add(new SagaTimeout(saga.transactionId, saga.orderId, saga.eventId,
+                        saga.pendingTopic, saga.attempts, saga.attempts > maxAttempts));
+            }
+        }
+        return timeouts;
+    }
+
+    // Runs the change under the saga's lock, then waits for its journal record outside of it. False
+    // when the saga is not registered or the change refused it.
+    private boolean update(String transactionId, ToLongFunction<InFlightSaga> change) {
+        var owned = partitionOf(transactionId);
+        var saga = owned == null ? null : owned.sagas.get(transactionId);
+        if (saga == null) {
+            return false;
+        }
+        long sequence;
+        synchronized (saga) {
+            sequence = isRegistered(saga) ? change.applyAsLong(saga) : REFUSED;
+        }
+        if (sequence == REFUSED) {
+            return false;
+        }
+        owned.journal.awaitDurable(sequence);
+        return true;
+    }
+
+    private SagaPartition partitionOf(String transactionId) {
+        return partitions.get(partitioner.partitionOf(transactionId));
+    }
+
+    // Whether the entry is still the saga's: neither finished nor dropped with its partition.
+    private boolean isRegistered(InFlightSaga saga) {
+        var owned = saga.partition;
+        return partitions.get(owned.partition) == owned && owned.sagas.get(saga.transactionId) == saga;
+    }
+
+    // A hop taken inside a listener transaction that does not commit is redelivered, so the saga
+    // must wait on the topic it waited on before. A saga the hop created has no pending topic yet.
+    private void undoOnRollback(InFlightSaga saga) {
+        var pendingTopic = saga.pendingTopic;
+        var attempts = saga.attempts;
+        var dispatchedAtMillis = saga.dispatchedAtMillis;
+        var history = saga.history;
+        SagaStateRollback.onRollback(() -> restore(saga, pendingTopic, attempts, dispatchedAtMillis, history));
+    }
+
+    private void restore(InFlightSaga saga, ETopics pendingTopic, int attempts, long dispatchedAtMillis,
+                         List<History> history) {
+        var owned = saga.partition;
+        long sequence;
+        synchronized (saga) {
+            // A partition revoked meanwhile is replayed by its next owner, which redelivers the records.
+            if (partitions.get(owned.partition) != owned) {
+                return;
+            }
+            saga.pendingTopic = pendingTopic;
+            saga.attempts = attempts;
+            saga.dispatchedAtMillis = dispatchedAtMillis;
+            saga.history = history;
+            if (pendingTopic == null) {
+                owned.sagas.remove(saga.transactionId, saga);
+                cancel(saga);
+            } else {
+                owned.sagas.putIfAbsent(saga.transactionId, saga);
+                owned.markFinished(saga.transactionId, false);
+                schedule(saga, dispatchedAtMillis + timeoutMillis);
+            }
+            sequence = owned.journal.append(new SagaJournalRecord(saga.transactionId, saga.orderId, saga.eventId,
+                    null, null, pendingTopic, dispatchedAtMillis));
+        }
+        owned.journal.awaitDurable(sequence);
+    }
+
+    public int size() {
+        var size = 0;
+        for (var owned : partitions.values()) {
+            size += owned.sagas.size();
+        }
+        return size;
+    }
+
+    public boolean isWithinHistoryCap(int historySize) {
+        return historySize <= maxHistoryEntries;
+    }
+
+    public boolean isDeltaHistory() {
+        return "delta".equalsIgnoreCase(historyMode);
+    }
+
+    // The hop being dispatched answers the previous one, which times the step that just finished.
+    private long dispatch(InFlightSaga saga, EEventSource source, ESagaStatus status, ETopics topic) {
+        var now = System.currentTimeMillis();
+        if (saga.dispatchedAtMillis > 0) {
+            metrics.recordStep(source, status, now - saga.dispatchedAtMillis);
+        }
+        saga.dispatchedAtMillis = now;
+        schedule(saga, now + timeoutMillis);
+        return saga.partition.journal.append(new SagaJournalRecord(saga.transactionId, saga.orderId, saga.eventId,
+                source, status, topic, now));
+    }
+
+    private void schedule(InFlightSaga saga, long deadlineMillis) {
+        synchronized (wheel) {
+            wheel.schedule(saga, deadlineMillis);
+        }
+    }
+
+    private void cancel(InFlightSaga saga) {
+        synchronized (wheel) {
+            wheel.cancel(saga);
+        }
+    }
+
+    private boolean isScheduled(InFlightSaga saga) {
+        synchronized (wheel) {
+            return saga.isScheduled();
+        }
+    }
+
+    private static List<History> merge(List<History> stored, List<History> delta) {
+        if (stored == null || stored.isEmpty()) {
+            return delta;
+        }
+        if (delta == null || delta.isEmpty()) {
+            return stored;
+        }
+        var merged = new ArrayList<History>(stored.size() + delta.size());
+        merged.addAll(stored);
+        merged.addAll(delta);
+        return merged;
+    }
+
+    // Keeps the most recent entries, a saga stuck in a retry loop cannot grow its events forever.
+    private List<History> capHistory(List<History> history) {
+        if (history == null || history.size() <= maxHistoryEntries) {
+            return history;
+        }
+        return new ArrayList<>(history.subList(history.size() - maxHistoryEntries, history.size()));
+    }
+}
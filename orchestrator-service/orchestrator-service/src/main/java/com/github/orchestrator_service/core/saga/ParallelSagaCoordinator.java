@@ -0,0 +1,244 @@
+package com.github.orchestrator_service.core.saga;
+
+import com.github.orchestrator_service.core.dto.Event;
+import com.github.orchestrator_service.core.dto.History;
+import com.github.orchestrator_service.core.enums.EEventSource;
+import com.github.orchestrator_service.core.enums.ETopics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import static com.github.orchestrator_service.core.enums.ETopics.FINISH_FAIL;
+import static com.github.orchestrator_service.core.enums.ETopics.FINISH_SUCCESS;
+import static com.github.orchestrator_service.core.saga.SagaHandler.*;
+
+/**
+ * Runs {@link SagaHandler#PARALLEL_SAGA_STAGES} when {@code saga.definition=parallel}. All branches
+ * of a stage are dispatched at once and the saga joins on their replies: it moves to the next stage
+ * when every branch succeeded, otherwise it compensates only the branches that succeeded.
+ *
+ * <p>Join state is a set of bitmasks indexed by participant ordinal, kept in memory per transaction
+ * id. It is not journaled, replies of sagas started before a restart, or before a rebalance moved
+ * their partition to this instance, are routed sequentially.
+ * Changes made in a listener transaction that does not commit are undone, see {@link SagaStateRollback}.
+ */
+@Slf4j
+@Component
+public class ParallelSagaCoordinator {
+
+    private final Map<EEventSource, ETopics> successTopics = new EnumMap<>(EEventSource.class);
+    private final Map<EEventSource, ETopics> failTopics = new EnumMap<>(EEventSource.class);
+    private final Map<String, Join> joins = new ConcurrentHashMap<>();
+
+    @Value("${saga.definition:sequential}")
+    private String definition;
+
+    @Value("${saga.history.mode:full}")
+    private String historyMode;
+
+    public ParallelSagaCoordinator() {
+        for (var row : SAGA_PARTICIPANTS) {
+            var participant = (EEventSource) row[PARTICIPANT_INDEX];
+            successTopics.put(participant, (ETopics) row[PARTICIPANT_SUCCESS_TOPIC_INDEX]);
+            failTopics.put(participant, (ETopics) row[PARTICIPANT_FAIL_TOPIC_INDEX]);
+        }
+    }
+
+    public boolean isEnabled() {
+        return "parallel".equalsIgnoreCase(definition);
+    }
+
+    /**
+     * Drops the joins of the given sagas, called when their partition is revoked. The instance that
+     * takes the partition over routes their remaining replies sequentially.
+     */
+    public void forget(Predicate<String> transactionIds) {
+        joins.keySet().removeIf(transactionIds);
+    }
+
+    public SagaDispatch start(Event event) {
+        var join = new Join();
+        if (event.getEventHistory() != null && !isDeltaHistory()) {
+            join.history.addAll(event.getEventHistory());
+        }
+        joins.put(event.getTransactionId(), join);
+        SagaStateRollback.onRollback(() -> joins.remove(event.getTransactionId(), join));
+        synchronized (join) {
+            var topics = new ArrayList<ETopics>();
+            startStage(join, 0, topics);
+            return dispatch(join, topics);
+        }
+    }
+
+    /**
+     * Applies a participant reply to the join. Returns {@code null} for sagas this coordinator does
+     * not know about. Duplicated replies leave the join untouched and dispatch nothing.
+     */
+    public SagaDispatch onReply(Event event) {
+        var join = joins.get(event.getTransactionId());
+        if (join == null || !failTopics.containsKey(event.getSource())) {
+            return null;
+        }
+        synchronized (join) {
+            undoOnRollback(join);
+            var topics = new ArrayList<ETopics>();
+            var source = event.getSource();
+            var bit = 1 << source.ordinal();
+            switch (event.getStatus()) {
+                case SUCCESS -> {
+                    if ((join.pending & bit) == 0) {
+                        return dispatch(join, topics);
+                    }
+                    join.pending &= ~bit;
+                    join.succeeded |= bit;
+                }
+                case ROLLBACK_PENDING -> {
+                    if ((join.pending & bit) != 0) {
+                        join.pending &= ~bit;
+                        join.compensating |= bit;
+                        join.failed = true;
+                    } else if ((join.compensating & bit) == 0) {
+                        return dispatch(join, topics);
+                    }
+                    // The branch rolls back its own partial work, as in the sequential saga.
+                    topics.add(failTopics.get(source));
+                }
+                case FAIL -> {
+                    if ((join.compensating & bit) == 0) {
+                        return dispatch(join, topics);
+                    }
+                    join.compensating &= ~bit;
+                }
+            }
+            mergeHistory(join, event);
+            if (join.pending == 0) {
+                advance(join, topics);
+            }
+            if (!isDeltaHistory()) {
+                event.setEventHistory(new ArrayList<>(join.history));
+            }
+            log.info("### CURRENT PARALLEL SAGA: {} | {} | NEXT TOPICS {} | TRANSACTION ID {}",
+                    source, event.getStatus(), topics, event.getTransactionId());
+            return dispatch(join, topics);
+        }
+    }
+
+    public void complete(String transactionId) {
+        var join = joins.remove(transactionId);
+        if (join != null) {
+            SagaStateRollback.onRollback(() -> joins.putIfAbsent(transactionId, join));
+        }
+    }
+
+    // A redelivered reply must find the join as it was, or it would be taken for a duplicate.
+    private void undoOnRollback(Join join) {
+        var snapshot = join.copy();
+        SagaStateRollback.onRollback(() -> {
+            synchronized (join) {
+                join.restore(snapshot);
+            }
+        });
+    }
+
+    private void advance(Join join, List<ETopics> topics) {
+        if (!join.failed) {
+            if (join.stage + 1 < PARALLEL_SAGA_STAGES.length) {
+                startStage(join, join.stage + 1, topics);
+            } else if (!join.finished) {
+                join.finished = true;
+                topics.add(FINISH_SUCCESS);
+            }
+            return;
+        }
+        if (join.succeeded != 0) {
+            for (var participant : EEventSource.values()) {
+                if ((join.succeeded & (1 << participant.ordinal())) != 0) {
+                    topics.add(failTopics.get(participant));
+                }
+            }
+            join.compensating |= join.succeeded;
+            join.succeeded = 0;
+        }
+        if (join.compensating == 0 && !join.finished) {
+            join.finished = true;
+            topics.add(FINISH_FAIL);
+        }
+    }
+
+    private void startStage(Join join, int stage, List<ETopics> topics) {
+        join.stage = stage;
+        for (var participant : PARALLEL_SAGA_STAGES[stage]) {
+            join.pending |= 1 << participant.ordinal();
+            topics.add(successTopics.get(participant));
+        }
+    }
+
+    // The saga is tracked on the first branch it still waits for; a timeout there fails that branch.
+    private SagaDispatch dispatch(Join join, List<ETopics> topics) {
+        var awaiting = join.failed ? FINISH_FAIL : FINISH_SUCCESS;
+        for (var participant : EEventSource.values()) {
+            var bit = 1 << participant.ordinal();
+            if ((join.pending & bit) != 0) {
+                awaiting = successTopics.get(participant);
+                break;
+            }
+            if ((join.compensating & bit) != 0) {
+                awaiting = failTopics.get(participant);
+                break;
+            }
+        }
+        return new SagaDispatch(topics, awaiting);
+    }
+
+    // Each branch reply carries the history it left with plus its own entries. In delta mode the
+    // registry assembles the history instead.
+    private void mergeHistory(Join join, Event event) {
+        if (isDeltaHistory() || event.getEventHistory() == null) {
+            return;
+        }
+        for (var entry : event.getEventHistory()) {
+            if (!join.history.contains(entry)) {
+                join.history.add(entry);
+            }
+        }
+    }
+
+    private boolean isDeltaHistory() {
+        return "delta".equalsIgnoreCase(historyMode);
+    }
+
+    private static final class Join {
+
+        int stage;
+        int pending;
+        int succeeded;
+        int compensating;
+        boolean failed;
+        boolean finished;
+        final List<History> history = new ArrayList<>();
+
+        Join copy() {
+            var copy = new Join();
+            copy.restore(this);
+            return copy;
+        }
+
+        void restore(Join other) {
+            stage = other.stage;
+            pending = other.pending;
+            succeeded = other.succeeded;
+            compensating = other.compensating;
+            failed = other.failed;
+            finished = other.finished;
+            history.clear();
+            history.addAll(other.history);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.orchestrator_service.core.saga;
+
+import com.github.orchestrator_service.core.enums.ETopics;
+
+import java.util.List;
+
+/**
+ * Topics an event has to be sent to next, possibly none while a join is still waiting, and the
+ * topic the saga is tracked on until its next reply.
+ */
+public record SagaDispatch(List<ETopics> topics,
+                           ETopics awaiting) {
+}
@@ -2,15 +2,14 @@ package com.github.orchestrator_service.core.saga;
 
 import com.github.orchestrator_service.config.exception.ValidationException;
 import com.github.orchestrator_service.core.dto.Event;
+import com.github.orchestrator_service.core.enums.EEventSource;
+import com.github.orchestrator_service.core.enums.ESagaStatus;
 import com.github.orchestrator_service.core.enums.ETopics;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import org.springframework.util.ObjectUtils;
 
-import java.util.Arrays;
-
-import static com.github.orchestrator_service.core.saga.SagaHandler.*;
+import static com.github.orchestrator_service.core.saga.SagaHandler.SAGA_HANDLER;
 import static org.springframework.util.ObjectUtils.isEmpty;
 
 @Slf4j
@@ -20,8 +19,12 @@ public class SagaExecutionController {
 
     private static final String SAGA_LOG_ID = "ORDER ID: %s | TRANSACTION ID %s | EVENT ID %s";
 
+    private final SagaTransitionTable transitions = SagaTransitionTable.compile(SAGA_HANDLER);
+    private final SagaMetrics metrics;
+
     public ETopics getNextTopic(Event event) {
         if (isEmpty(event.getSource()) || isEmpty(event.getStatus())) {
+            metrics.countValidationError();
             throw new ValidationException("Source and status must be informed.");
         }
         var topic = findTopicBySourceAndStatus(event);
@@ -29,18 +32,35 @@ public class SagaExecutionController {
         return topic;
     }
 
+    public ETopics getNextTopic(String transactionId, EEventSource source, ESagaStatus status) {
+        var topic = findTopic(source, status);
+        log.info("### CURRENT SAGA: {} | {} | NEXT TOPIC {} | TRANSACTION ID {}", source, status, topic, transactionId);
+        return topic;
+    }
+
+    public EEventSource getTopicConsumer(ETopics topic) {
+        return transitions.consumerOf(topic);
+    }
+
+    public boolean isRollback(ETopics topic) {
+        return transitions.isRollback(topic);
+    }
+
+    public boolean isReplyTo(ETopics pendingTopic, EEventSource source, ESagaStatus status) {
+        return transitions.isReplyTo(pendingTopic, source, status);
+    }
+
     private ETopics findTopicBySourceAndStatus(Event event) {
-        return (ETopics) (Arrays.stream(SagaHandler.SAGA_HANDLER)
-                .filter(row -> isEventSourceAndStatusValid(event, row))
-                .map(i -> i[TOPIC_INDEX])
-                .findFirst()
-                .orElseThrow(() -> new ValidationException("Topic not found!")));
+        return findTopic(event.getSource(), event.getStatus());
     }
 
-    private boolean isEventSourceAndStatusValid(Event event, Object[] row) {
-        var source = row[EVENT_SOURCE_INDEX];
-        var status = row[SAGA_STATUS_INDEX];
-        return event.getSource().equals(source) && event.getStatus().equals(status);
+    private ETopics findTopic(EEventSource source, ESagaStatus status) {
+        try {
+            return transitions.next(source, status);
+        } catch (ValidationException e) {
+            metrics.countValidationError();
+            throw e;
+        }
     }
 
     private void logCurrentSaga(Event event, ETopics topic) {
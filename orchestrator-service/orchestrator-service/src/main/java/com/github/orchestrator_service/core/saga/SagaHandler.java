@@ -35,4 +35,21 @@ public final class SagaHandler {
     public static final int SAGA_STATUS_INDEX = 1;
     public static final int TOPIC_INDEX = 2;
 
+    public static final Object[][] SAGA_PARTICIPANTS = {
+            {PRODUCT_VALIDATION_SERVICE, PRODUCT_VALIDATION_SUCCESS, PRODUCT_VALIDATION_FAIL},
+            {PAYMENT_SERVICE, PAYMENT_SUCCESS, PAYMENT_FAIL},
+            {INVENTORY_SERVICE, INVENTORY_SUCCESS, INVENTORY_FAIL}
+    };
+
+    public static final int PARTICIPANT_INDEX = 0;
+    public static final int PARTICIPANT_SUCCESS_TOPIC_INDEX = 1;
+    public static final int PARTICIPANT_FAIL_TOPIC_INDEX = 2;
+
+    // Used with saga.definition=parallel: the participants of a stage run at the same time and the
+    // next stage starts once all of them succeeded.
+    public static final EEventSource[][] PARALLEL_SAGA_STAGES = {
+            {PRODUCT_VALIDATION_SERVICE, INVENTORY_SERVICE},
+            {PAYMENT_SERVICE}
+    };
+
 }
@@ -0,0 +1,99 @@
+package com.github.orchestrator_service.core.saga;
+
+import com.github.orchestrator_service.core.dto.Event;
+import com.github.orchestrator_service.core.enums.EEventSource;
+import com.github.orchestrator_service.core.enums.ESagaStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Saga level meters of the orchestrator. Timers publish client side percentiles, which Micrometer
+ * keeps in HdrHistogram recorders, plus the histogram buckets Prometheus needs to aggregate them.
+ * Every meter is registered up front, recording never looks a meter up.
+ *
+ * <ul>
+ *     <li>{@code saga.step}: time from sending a saga to a topic until the reply it caused comes
+ *     back, tagged with the source and status of that reply.</li>
+ *     <li>{@code saga.duration}: end to end time of a finished saga, measured from
+ *     {@link Event#getCreatedAt()}, tagged with the final status.</li>
+ *     <li>{@code saga.compensations}: rollbacks sent to the fail topic of a participant, tagged with
+ *     the source and status of the reply that caused them. Rollbacks sent again after a timeout are
+ *     not counted.</li>
+ *     <li>{@code saga.validation.errors}: events rejected by the routing rules.</li>
+ * </ul>
+ */
+@Component
+public class SagaMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    private final Timer[][] steps;
+    private final Counter[][] compensations;
+    private final Timer[] durations;
+    private final Counter validationErrors;
+
+    public SagaMetrics(MeterRegistry registry) {
+        var sources = EEventSource.values();
+        var statuses = ESagaStatus.values();
+        steps = new Timer[sources.length][statuses.length];
+        compensations = new Counter[sources.length][statuses.length];
+        durations = new Timer[statuses.length];
+        for (var status : statuses) {
+            for (var source : sources) {
+                steps[source.ordinal()][status.ordinal()] = timer("saga.step", "Latency of a saga step")
+                        .tag("source", source.name())
+                        .tag("status", status.name())
+                        .register(registry);
+                compensations[source.ordinal()][status.ordinal()] = Counter
+                        .builder("saga.compensations")
+                        .description("Saga rollbacks sent to participants")
+                        .tag("source", source.name())
+                        .tag("status", status.name())
+                        .register(registry);
+            }
+            durations[status.ordinal()] = timer("saga.duration", "End to end duration of finished sagas")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+        validationErrors = Counter
+                .builder("saga.validation.errors")
+                .description("Saga events rejected by the routing rules")
+                .register(registry);
+    }
+
+    public void recordStep(EEventSource source, ESagaStatus status, long elapsedMillis) {
+        if (source != null && status != null && elapsedMillis >= 0) {
+            steps[source.ordinal()][status.ordinal()].record(Duration.ofMillis(elapsedMillis));
+        }
+    }
+
+    public void recordSagaFinished(Event event) {
+        var createdAt = event.getCreatedAt();
+        if (createdAt != null && event.getStatus() != null) {
+            durations[event.getStatus().ordinal()].record(Duration.between(createdAt, LocalDateTime.now()));
+        }
+    }
+
+    public void countCompensation(EEventSource source, ESagaStatus status) {
+        if (source != null && status != null) {
+            compensations[source.ordinal()][status.ordinal()].increment();
+        }
+    }
+
+    public void countValidationError() {
+        validationErrors.increment();
+    }
+
+    private static Timer.Builder timer(String name, String description) {
+        return Timer
+                .builder(name)
+                .description(description)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram();
+    }
+}
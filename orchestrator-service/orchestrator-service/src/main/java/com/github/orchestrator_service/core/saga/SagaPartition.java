@@ -0,0 +1,50 @@
+package com.github.orchestrator_service.core.saga;
+
+import com.github.orchestrator_service.core.journal.SagaJournal;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Saga state of one partition of the orchestrator topics, held by {@link InFlightSagaRegistry}
+ * while this instance owns the partition.
+ */
+final class SagaPartition {
+
+    final int partition;
+    final SagaJournal journal;
+    final Map<String, InFlightSaga> sagas;
+    private final Set<String> finished;
+
+    SagaPartition(int partition, SagaJournal journal, int initialCapacity, int finishedCapacity) {
+        this.partition = partition;
+        this.journal = journal;
+        this.sagas = new ConcurrentHashMap<>(initialCapacity);
+        this.finished = Collections.newSetFromMap(new LinkedHashMap<String, Boolean>() {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > finishedCapacity;
+            }
+        });
+    }
+
+    boolean isFinished(String transactionId) {
+        synchronized (finished) {
+            return finished.contains(transactionId);
+        }
+    }
+
+    void markFinished(String transactionId, boolean value) {
+        synchronized (finished) {
+            if (value) {
+                finished.add(transactionId);
+            } else {
+                finished.remove(transactionId);
+            }
+        }
+    }
+}
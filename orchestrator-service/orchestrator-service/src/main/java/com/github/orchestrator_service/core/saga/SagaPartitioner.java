@@ -0,0 +1,27 @@
+package com.github.orchestrator_service.core.saga;
+
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Partition of the orchestrator topics a saga's records land on. Every record is keyed by its
+ * transaction id and those topics are co-partitioned, so this is the partition the default
+ * partitioner of the producers picks on any of them.
+ */
+@Component
+public class SagaPartitioner {
+
+    @Value("${spring.kafka.partitions.default:1}")
+    private int partitionCount;
+
+    public int partitionOf(String transactionId) {
+        return Utils.toPositive(Utils.murmur2(transactionId.getBytes(UTF_8))) % partitionCount;
+    }
+
+    public int partitionCount() {
+        return partitionCount;
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.orchestrator_service.core.saga;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Undo actions for in-memory saga state changed inside a listener transaction. The Kafka
+ * transaction only covers offsets and sends: when it does not commit, the records are redelivered
+ * and must find the registry and the parallel joins as they were before. Actions run in reverse
+ * order once the transaction ended without committing; outside of a transaction nothing is kept.
+ */
+final class SagaStateRollback {
+
+    private static final Object RESOURCE_KEY = SagaStateRollback.class;
+
+    private SagaStateRollback() {
+    }
+
+    static void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        var undos = (Deque<Runnable>) TransactionSynchronizationManager.getResource(RESOURCE_KEY);
+        if (undos == null) {
+            undos = register();
+        }
+        undos.push(undo);
+    }
+
+    private static Deque<Runnable> register() {
+        var undos = new ArrayDeque<Runnable>();
+        TransactionSynchronizationManager.bindResource(RESOURCE_KEY, undos);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+                if (status != STATUS_COMMITTED) {
+                    undos.forEach(Runnable::run);
+                }
+            }
+        });
+        return undos;
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.orchestrator_service.core.saga;
+
+import com.github.orchestrator_service.core.enums.ETopics;
+
+/**
+ * A saga whose deadline passed, with the ids its timeout event is rebuilt from.
+ */
+public record SagaTimeout(String transactionId,
+                          String orderId,
+                          String eventId,
+                          ETopics pendingTopic,
+                          int attempts,
+                          boolean exhausted) {
+}
@@ -0,0 +1,58 @@
+package com.github.orchestrator_service.core.saga;
+
+import com.github.orchestrator_service.core.service.OrchestratorService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the timeouts of the listener based engine; the streams engine expires its sagas from a
+ * punctuator instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${spring.kafka.consumer.mode:record}' != 'streams'")
+public class SagaTimeoutMonitor {
+
+    private final InFlightSagaRegistry inFlightSagas;
+    private final OrchestratorService orchestratorService;
+
+    @Value("${saga.in-flight.tick-ms:100}")
+    private long tickMillis;
+
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "saga-timeout-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        ticker.shutdownNow();
+    }
+
+    private void tick() {
+        for (var timeout : inFlightSagas.expire(System.currentTimeMillis())) {
+            try {
+                orchestratorService.handleTimeout(timeout);
+            } catch (Exception e) {
+                log.error("Failed to handle timeout for transaction {}: {}", timeout.transactionId(), e.getMessage());
+            }
+        }
+    }
+}
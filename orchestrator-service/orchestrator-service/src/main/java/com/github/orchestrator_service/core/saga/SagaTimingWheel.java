@@ -0,0 +1,88 @@
+package com.github.orchestrator_service.core.saga;
+
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for saga deadlines. Scheduling and cancelling are O(1) list splices and each
+ * tick only walks the bucket it lands on. Not thread-safe, {@link InFlightSagaRegistry} guards it.
+ */
+final class SagaTimingWheel {
+
+    private final InFlightSaga[] buckets;
+    private final int mask;
+    private final long tickMillis;
+    private final long originMillis;
+    private long currentTick;
+
+    SagaTimingWheel(int wheelSize, long tickMillis, long originMillis) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two.");
+        }
+        this.buckets = new InFlightSaga[wheelSize];
+        this.mask = wheelSize - 1;
+        this.tickMillis = tickMillis;
+        this.originMillis = originMillis;
+    }
+
+    void schedule(InFlightSaga saga, long deadlineMillis) {
+        cancel(saga);
+        var deadlineTick = Math.max(currentTick, ceilDiv(deadlineMillis - originMillis, tickMillis));
+        saga.deadlineTick = deadlineTick;
+        saga.remainingRounds = (deadlineTick - currentTick) / buckets.length;
+        link(saga, (int) (deadlineTick & mask));
+    }
+
+    void cancel(InFlightSaga saga) {
+        if (!saga.isScheduled()) {
+            return;
+        }
+        if (saga.previous == null) {
+            buckets[saga.bucket] = saga.next;
+        } else {
+            saga.previous.next = saga.next;
+        }
+        if (saga.next != null) {
+            saga.next.previous = saga.previous;
+        }
+        saga.previous = null;
+        saga.next = null;
+        saga.bucket = -1;
+    }
+
+    /**
+     * Processes every tick that elapsed up to {@code nowMillis}, unlinking expired sagas before
+     * handing them to {@code expired}.
+     */
+    void advance(long nowMillis, Consumer<InFlightSaga> expired) {
+        var lastTick = (nowMillis - originMillis) / tickMillis;
+        while (currentTick <= lastTick) {
+            var saga = buckets[(int) (currentTick & mask)];
+            while (saga != null) {
+                var next = saga.next;
+                if (saga.remainingRounds <= 0) {
+                    cancel(saga);
+                    expired.accept(saga);
+                } else {
+                    saga.remainingRounds--;
+                }
+                saga = next;
+            }
+            currentTick++;
+        }
+    }
+
+    private void link(InFlightSaga saga, int bucket) {
+        var head = buckets[bucket];
+        saga.bucket = bucket;
+        saga.previous = null;
+        saga.next = head;
+        if (head != null) {
+            head.previous = saga;
+        }
+        buckets[bucket] = saga;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.orchestrator_service.core.saga;
+
+import com.github.orchestrator_service.config.exception.ValidationException;
+import com.github.orchestrator_service.core.enums.EEventSource;
+import com.github.orchestrator_service.core.enums.ESagaStatus;
+import com.github.orchestrator_service.core.enums.ETopics;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.github.orchestrator_service.core.enums.EEventSource.ORCHESTRATOR;
+import static com.github.orchestrator_service.core.enums.ESagaStatus.FAIL;
+import static com.github.orchestrator_service.core.enums.ESagaStatus.ROLLBACK_PENDING;
+import static com.github.orchestrator_service.core.saga.SagaHandler.*;
+
+/**
+ * Saga definition from {@link SagaHandler#SAGA_HANDLER} compiled into a dense table indexed by
+ * {@link EEventSource} and {@link ESagaStatus} ordinals, so resolving the next topic is a plain
+ * array read. The definition is validated once when the table is compiled.
+ */
+public final class SagaTransitionTable {
+
+    private static final EEventSource[] SOURCES = EEventSource.values();
+    private static final ESagaStatus[] STATUSES = ESagaStatus.values();
+    private static final ETopics[] TOPICS = ETopics.values();
+
+    private final ETopics[][] transitions;
+    private final EEventSource[] consumers;
+    private final boolean[] rollbacks;
+
+    private SagaTransitionTable(ETopics[][] transitions, EEventSource[] consumers, boolean[] rollbacks) {
+        this.transitions = transitions;
+        this.consumers = consumers;
+        this.rollbacks = rollbacks;
+    }
+
+    public static SagaTransitionTable compile(Object[][] definition) {
+        return compile(definition, SAGA_PARTICIPANTS);
+    }
+
+    public static SagaTransitionTable compile(Object[][] definition, Object[][] participants) {
+        var table = new EnumMap<EEventSource, EnumMap<ESagaStatus, ETopics>>(EEventSource.class);
+        for (var row : definition) {
+            var source = cell(row, EVENT_SOURCE_INDEX, EEventSource.class);
+            var status = cell(row, SAGA_STATUS_INDEX, ESagaStatus.class);
+            var topic = cell(row, TOPIC_INDEX, ETopics.class);
+            var previous = table
+                    .computeIfAbsent(source, key -> new EnumMap<>(ESagaStatus.class))
+                    .putIfAbsent(status, topic);
+            if (previous != null) {
+                throw new ValidationException(String.format(
+                        "Ambiguous saga transition for %s and %s: %s or %s.", source, status, previous, topic));
+            }
+        }
+        validateMissingTransitions(table);
+        return new SagaTransitionTable(flatten(table), compileConsumers(participants), compileRollbacks(participants));
+    }
+
+    public ETopics next(EEventSource source, ESagaStatus status) {
+        var topic = transitions[source.ordinal()][status.ordinal()];
+        if (topic == null) {
+            throw new ValidationException("Topic not found!");
+        }
+        return topic;
+    }
+
+    /**
+     * Participant that consumes the given topic, or {@code null} when the topic is consumed by the
+     * orchestrator itself.
+     */
+    public EEventSource consumerOf(ETopics topic) {
+        return consumers[topic.ordinal()];
+    }
+
+    /**
+     * Whether the topic asks a participant to roll its step back.
+     */
+    public boolean isRollback(ETopics topic) {
+        return rollbacks[topic.ordinal()];
+    }
+
+    /**
+     * Whether a reply answers the topic the saga is waiting on: it must come from the participant
+     * consuming that topic, with {@code FAIL} for a rollback and any other status for a step.
+     */
+    public boolean isReplyTo(ETopics pendingTopic, EEventSource source, ESagaStatus status) {
+        if (pendingTopic == null || source == null || consumerOf(pendingTopic) != source) {
+            return false;
+        }
+        return isRollback(pendingTopic) == (status == FAIL);
+    }
+
+    private static EEventSource[] compileConsumers(Object[][] participants) {
+        var consumers = new EEventSource[TOPICS.length];
+        for (var row : participants) {
+            var participant = cell(row, PARTICIPANT_INDEX, EEventSource.class);
+            for (var index : new int[]{PARTICIPANT_SUCCESS_TOPIC_INDEX, PARTICIPANT_FAIL_TOPIC_INDEX}) {
+                var topic = cell(row, index, ETopics.class);
+                if (consumers[topic.ordinal()] != null) {
+                    throw new ValidationException(String.format(
+                            "Topic %s is consumed by %s and %s.", topic, consumers[topic.ordinal()], participant));
+                }
+                consumers[topic.ordinal()] = participant;
+            }
+        }
+        return consumers;
+    }
+
+    private static boolean[] compileRollbacks(Object[][] participants) {
+        var rollbacks = new boolean[TOPICS.length];
+        for (var row : participants) {
+            rollbacks[cell(row, PARTICIPANT_FAIL_TOPIC_INDEX, ETopics.class).ordinal()] = true;
+        }
+        return rollbacks;
+    }
+
+    private static <T> T cell(Object[] row, int index, Class<T> type) {
+        if (row.length <= index || !type.isInstance(row[index])) {
+            throw new ValidationException(String.format(
+                    "Invalid saga definition row: expected %s at position %d.", type.getSimpleName(), index));
+        }
+        return type.cast(row[index]);
+    }
+
+    // The orchestrator never asks for its own rollback, every participant must answer all statuses.
+    private static void validateMissingTransitions(Map<EEventSource, EnumMap<ESagaStatus, ETopics>> table) {
+        for (var source : SOURCES) {
+            var defined = table.getOrDefault(source, new EnumMap<>(ESagaStatus.class)).keySet();
+            var missing = EnumSet.copyOf(requiredStatuses(source));
+            missing.removeAll(defined);
+            if (!missing.isEmpty()) {
+                throw new ValidationException(String.format(
+                        "Missing saga transitions for %s: %s.", source, missing));
+            }
+        }
+    }
+
+    private static Set<ESagaStatus> requiredStatuses(EEventSource source) {
+        return ORCHESTRATOR.equals(source)
+                ? EnumSet.complementOf(EnumSet.of(ROLLBACK_PENDING))
+                : EnumSet.allOf(ESagaStatus.class);
+    }
+
+    private static ETopics[][] flatten(Map<EEventSource, EnumMap<ESagaStatus, ETopics>> table) {
+        var transitions = new ETopics[SOURCES.length][STATUSES.length];
+        table.forEach((source, statuses) ->
+                statuses.forEach((status, topic) -> transitions[source.ordinal()][status.ordinal()] = topic));
+        return transitions;
+    }
+}
@@ -2,63 +2,233 @@ package com.github.orchestrator_service.core.service;
 
 import com.github.orchestrator_service.core.dto.Event;
 import com.github.orchestrator_service.core.dto.History;
+import com.github.orchestrator_service.core.dto.Order;
+import com.github.orchestrator_service.core.enums.EEventSource;
+import com.github.orchestrator_service.core.enums.ESagaStatus;
 import com.github.orchestrator_service.core.enums.ETopics;
+import com.github.orchestrator_service.core.jfr.SagaRoutingEvent;
 import com.github.orchestrator_service.core.producer.SagaOrchestratorProducer;
+import com.github.orchestrator_service.core.saga.InFlightSagaRegistry;
+import com.github.orchestrator_service.core.saga.ParallelSagaCoordinator;
+import com.github.orchestrator_service.core.saga.SagaDispatch;
 import com.github.orchestrator_service.core.saga.SagaExecutionController;
-import com.github.orchestrator_service.core.utils.JsonUtil;
+import com.github.orchestrator_service.core.saga.SagaMetrics;
+import com.github.orchestrator_service.core.saga.SagaTimeout;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 import static com.github.orchestrator_service.core.enums.EEventSource.ORCHESTRATOR;
-import static com.github.orchestrator_service.core.enums.ESagaStatus.FAIL;
-import static com.github.orchestrator_service.core.enums.ESagaStatus.SUCCESS;
-import static com.github.orchestrator_service.core.enums.ETopics.NOTIFY_ENDING;
+import static com.github.orchestrator_service.core.enums.ESagaStatus.*;
+import static com.github.orchestrator_service.core.enums.ETopics.*;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class OrchestratorService {
 
-    private final JsonUtil jsonUtil;
     private final SagaOrchestratorProducer producer;
     private SagaExecutionController executionController;
+    private final InFlightSagaRegistry inFlightSagas;
+    private final ParallelSagaCoordinator parallelSagas;
+    private final SagaMetrics metrics;
 
     public void startSaga(Event event) {
-        event.setSource(ORCHESTRATOR);
-        event.setStatus(SUCCESS);
-        var topic = getTopic(event);
-        log.info("SAGA STARTED!");
-        addHistory(event, "Saga started!");
-        sendToProducerWithTopic(event, topic);
+        route(START_SAGA, event, () -> {
+            if (inFlightSagas.isKnown(event.getTransactionId())) {
+                log.warn("DROPPING DUPLICATE START EVENT {}: SAGA {} ALREADY STARTED", event.getId(), event.getTransactionId());
+                return;
+            }
+            event.setSource(ORCHESTRATOR);
+            event.setStatus(SUCCESS);
+            if (parallelSagas.isEnabled()) {
+                log.info("SAGA STARTED!");
+                addHistory(event, "Saga started!");
+                dispatch(event, parallelSagas.start(event));
+                return;
+            }
+            var topic = getTopic(event);
+            log.info("SAGA STARTED!");
+            addHistory(event, "Saga started!");
+            inFlightSagas.track(event, topic);
+            sendToProducerWithTopic(event, topic);
+        });
     }
 
     public void finishSagaSuccess(Event event) {
-        event.setSource(ORCHESTRATOR);
-        event.setStatus(SUCCESS);
-        log.info("SAGA FINISHED SUCCESSFULLY FOR EVENT {}!", event.getId());
-        addHistory(event, "Saga finished successfully!");
-        notifyFinishedSaga(event);
+        route(FINISH_SUCCESS, event, () -> {
+            event.setSource(ORCHESTRATOR);
+            event.setStatus(SUCCESS);
+            addHistory(event, "Saga finished successfully!");
+            if (!inFlightSagas.complete(event, FINISH_SUCCESS)) {
+                log.warn("DROPPING FINISH EVENT {}: SAGA {} IS NOT WAITING ON {}", event.getId(), event.getTransactionId(), FINISH_SUCCESS);
+                return;
+            }
+            log.info("SAGA FINISHED SUCCESSFULLY FOR EVENT {}!", event.getId());
+            finishSaga(event);
+        });
     }
 
     public void finishSagaFail(Event event) {
-        event.setSource(ORCHESTRATOR);
-        event.setStatus(FAIL);
-        log.info("SAGA FINISHED WITH ERRORS FOR EVENT {}!", event.getId());
-        addHistory(event, "Saga finished with errors!");
-        notifyFinishedSaga(event);
+        finishSagaFail(event, FINISH_FAIL);
+    }
+
+    // An exhausted timeout finishes the saga from the topic it timed out on.
+    private void finishSagaFail(Event event, ETopics pendingTopic) {
+        route(FINISH_FAIL, event, () -> {
+            event.setSource(ORCHESTRATOR);
+            event.setStatus(FAIL);
+            addHistory(event, "Saga finished with errors!");
+            if (!inFlightSagas.complete(event, pendingTopic)) {
+                log.warn("DROPPING FINISH EVENT {}: SAGA {} IS NOT WAITING ON {}", event.getId(), event.getTransactionId(), pendingTopic);
+                return;
+            }
+            log.info("SAGA FINISHED WITH ERRORS FOR EVENT {}!", event.getId());
+            finishSaga(event);
+        });
     }
 
     public void continueSaga(Event event) {
-        var topic = getTopic(event);
-        log.info("SAGA CONTINUING FOR EVENT {}", event.getId());
-        sendToProducerWithTopic(event, topic);
+        route(BASE_ORCHESTRATOR, event, () -> {
+            if (parallelSagas.isEnabled()) {
+                var dispatch = parallelSagas.onReply(event);
+                if (dispatch != null) {
+                    log.info("SAGA CONTINUING FOR EVENT {}", event.getId());
+                    dispatch.topics().forEach(topic -> countCompensation(event.getSource(), event.getStatus(), topic));
+                    dispatch(event, dispatch);
+                    return;
+                }
+                log.warn("NO PARALLEL SAGA FOR TRANSACTION {}, CONTINUING SEQUENTIALLY", event.getTransactionId());
+            }
+            var topic = getTopic(event);
+            if (!inFlightSagas.trackReply(event, topic)) {
+                log.warn("DROPPING REPLY FROM {} WITH STATUS {} FOR EVENT {}: SAGA {} IS NOT WAITING ON IT",
+                        event.getSource(), event.getStatus(), event.getId(), event.getTransactionId());
+                return;
+            }
+            log.info("SAGA CONTINUING FOR EVENT {}", event.getId());
+            countCompensation(event.getSource(), event.getStatus(), topic);
+            sendToProducerWithTopic(event, topic);
+        });
+    }
+
+    /**
+     * Routes a participant reply from its headers alone and forwards the value bytes untouched.
+     * Returns {@code false} when the reply has to be decoded and continued instead: the saga is not
+     * registered here or not waiting on this reply (it is then dropped after decoding), its history
+     * travels as deltas that must be absorbed or is over the cap and must be trimmed, or it runs
+     * parallel branches that must be joined.
+     */
+    public boolean forwardSaga(String transactionId, EEventSource source, ESagaStatus status, int historySize,
+                               byte[] value) {
+        if (inFlightSagas.isDeltaHistory() || !inFlightSagas.isWithinHistoryCap(historySize) || parallelSagas.isEnabled()) {
+            return false;
+        }
+        var topic = executionController.getNextTopic(transactionId, source, status);
+        if (!inFlightSagas.trackReply(transactionId, source, status, topic)) {
+            return false;
+        }
+        countCompensation(source, status, topic);
+        producer.forwardEvent(transactionId, value, topic.getTopic());
+        return true;
+    }
+
+    public void handleTimeout(SagaTimeout timeout) {
+        var event = createTimeoutEvent(timeout);
+        var participant = executionController.getTopicConsumer(timeout.pendingTopic());
+        log.info("SAGA TIMED OUT FOR EVENT {} WAITING ON TOPIC {} | ATTEMPT {}",
+                timeout.eventId(), timeout.pendingTopic(), timeout.attempts());
+        if (timeout.exhausted()) {
+            finishSagaFail(event, timeout.pendingTopic());
+        } else if (participant == null) {
+            event.setSource(ORCHESTRATOR);
+            event.setStatus(FINISH_SUCCESS.equals(timeout.pendingTopic()) ? SUCCESS : FAIL);
+            retry(event, timeout.pendingTopic());
+        } else {
+            event.setSource(participant);
+            event.setStatus(ROLLBACK_PENDING);
+            addHistory(event, "Saga timed out waiting for ".concat(participant.name()));
+            if (executionController.isRollback(timeout.pendingTopic())) {
+                retry(event, timeout.pendingTopic());
+            } else {
+                continueSaga(event);
+            }
+        }
+    }
+
+    // Sends the hop again unless a reply moved the saga on since it timed out.
+    private void retry(Event event, ETopics topic) {
+        if (inFlightSagas.retry(event, topic)) {
+            sendToProducerWithTopic(event, topic);
+        }
+    }
+
+    // Participants compensate by order and transaction id, the order service keeps the products.
+    private Event createTimeoutEvent(SagaTimeout timeout) {
+        var order = Order
+                .builder()
+                .id(timeout.orderId())
+                .transactionId(timeout.transactionId())
+                .build();
+        return Event
+                .builder()
+                .id(timeout.eventId())
+                .orderId(timeout.orderId())
+                .transactionId(timeout.transactionId())
+                .payload(order)
+                .createdAt(createdAt(timeout.transactionId()))
+                .build();
+    }
+
+    // Transaction ids start with the epoch millis the order was created at, see the order service.
+    private static LocalDateTime createdAt(String transactionId) {
+        var separator = transactionId.indexOf('_');
+        try {
+            var millis = Long.parseLong(separator < 0 ? transactionId : transactionId.substring(0, separator));
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+        } catch (NumberFormatException e) {
+            return LocalDateTime.now();
+        }
+    }
+
+    // Handling slower than the JFR threshold is recorded as a saga.Routing event.
+    private void route(ETopics topic, Event event, Runnable handler) {
+        var routing = new SagaRoutingEvent();
+        var source = event.getSource();
+        var status = event.getStatus();
+        routing.begin();
+        try {
+            handler.run();
+        } finally {
+            routing.end();
+            if (routing.shouldCommit()) {
+                routing.transactionId = event.getTransactionId();
+                routing.topic = topic.getTopic();
+                routing.source = source == null ? null : source.name();
+                routing.status = status == null ? null : status.name();
+                routing.commit();
+            }
+        }
+    }
+
+    private void dispatch(Event event, SagaDispatch dispatch) {
+        inFlightSagas.track(event, dispatch.awaiting());
+        dispatch.topics().forEach(topic -> sendToProducerWithTopic(event, topic));
+    }
+
+    // Only a transition to the fail topic of a participant starts a compensation.
+    private void countCompensation(EEventSource source, ESagaStatus status, ETopics topic) {
+        if (executionController.isRollback(topic)) {
+            metrics.countCompensation(source, status);
+        }
     }
 
     private void sendToProducerWithTopic(Event event, ETopics topic) {
-        producer.sendEvent(jsonUtil.toJson(event), topic.getTopic());
+        producer.sendEvent(event.getTransactionId(), event, topic.getTopic());
     }
 
     private ETopics getTopic(Event event) {
@@ -76,6 +246,12 @@ public class OrchestratorService {
         event.addToHistory(history);
     }
 
+    private void finishSaga(Event event) {
+        parallelSagas.complete(event.getTransactionId());
+        metrics.recordSagaFinished(event);
+        notifyFinishedSaga(event);
+    }
+
     private void notifyFinishedSaga(Event event) {
         sendToProducerWithTopic(event, NOTIFY_ENDING);
     }
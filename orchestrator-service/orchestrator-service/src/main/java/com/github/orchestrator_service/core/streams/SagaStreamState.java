@@ -0,0 +1,14 @@
+package com.github.orchestrator_service.core.streams;
+
+import com.github.orchestrator_service.core.dto.Event;
+import com.github.orchestrator_service.core.enums.ETopics;
+
+/**
+ * What the streams engine keeps per transaction id: the last event it routed, the topic it is
+ * waiting on, how many timeouts the saga already went through and when the next one is due.
+ */
+public record SagaStreamState(Event event,
+                              ETopics pendingTopic,
+                              int attempts,
+                              long deadlineMillis) {
+}
@@ -0,0 +1,106 @@
+package com.github.orchestrator_service.core.streams;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.orchestrator_service.config.kafka.EventDeserializer;
+import com.github.orchestrator_service.config.kafka.EventSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.kafka.KafkaStreamsMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.errors.LogAndContinueExceptionHandler;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Runs the saga on Kafka Streams when {@code spring.kafka.consumer.mode=streams}, in place of the
+ * orchestrator listeners and the timeout monitor. See {@link SagaTopology}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.consumer.mode", havingValue = "streams")
+public class SagaStreamsEngine {
+
+    private final EventSerializer eventSerializer;
+    private final EventDeserializer eventDeserializer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String boostrapServers;
+
+    @Value("${spring.kafka.listener.concurrency:1}")
+    private Integer streamThreads;
+
+    @Value("${saga.streams.application-id:orchestrator-streams}")
+    private String applicationId;
+
+    @Value("${saga.streams.state-dir:./data/streams}")
+    private String stateDir;
+
+    @Value("${saga.streams.processing-guarantee:at_least_once}")
+    private String processingGuarantee;
+
+    @Value("${saga.in-flight.timeout-ms:30000}")
+    private long timeoutMillis;
+
+    @Value("${saga.in-flight.tick-ms:100}")
+    private long tickMillis;
+
+    @Value("${saga.in-flight.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${saga.history.max-entries:50}")
+    private int maxHistoryEntries;
+
+    private KafkaStreams streams;
+    private KafkaStreamsMetrics streamsMetrics;
+
+    @PostConstruct
+    void start() {
+        var topology = SagaTopology.build(
+                Serdes.serdeFrom(eventSerializer, eventDeserializer),
+                SagaTopology.stateSerde(objectMapper),
+                new SagaStreamsSettings(timeoutMillis, tickMillis, maxAttempts, maxHistoryEntries)
+        );
+        streams = new KafkaStreams(topology, streamsProps());
+        streams.setUncaughtExceptionHandler(error -> {
+            log.error("Saga stream thread failed, replacing it: {}", error.getMessage());
+            return StreamThreadExceptionResponse.REPLACE_THREAD;
+        });
+        // The engine has no listeners or saga meters, the client metrics of the topology stand in.
+        streamsMetrics = new KafkaStreamsMetrics(streams);
+        streamsMetrics.bindTo(meterRegistry);
+        streams.start();
+        log.info("Saga streams engine started with application id {}", applicationId);
+    }
+
+    @PreDestroy
+    void stop() {
+        streamsMetrics.close();
+        streams.close(Duration.ofSeconds(10));
+    }
+
+    private Properties streamsProps() {
+        var props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, boostrapServers);
+        props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, streamThreads);
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir);
+        props.put(StreamsConfig.PROCESSING_GUARANTEE_CONFIG, processingGuarantee);
+        // Undecodable events are logged and skipped, like the ErrorHandlingDeserializer of the listeners.
+        props.put(StreamsConfig.DESERIALIZATION_EXCEPTION_HANDLER_CLASS_CONFIG, LogAndContinueExceptionHandler.class);
+
+        return props;
+    }
+}
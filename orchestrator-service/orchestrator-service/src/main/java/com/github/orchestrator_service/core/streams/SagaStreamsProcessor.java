@@ -0,0 +1,208 @@
+package com.github.orchestrator_service.core.streams;
+
+import com.github.orchestrator_service.core.dto.Event;
+import com.github.orchestrator_service.core.dto.History;
+import com.github.orchestrator_service.core.enums.ESagaStatus;
+import com.github.orchestrator_service.core.enums.ETopics;
+import com.github.orchestrator_service.core.saga.SagaTransitionTable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.processor.api.RecordMetadata;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.github.orchestrator_service.core.enums.EEventSource.ORCHESTRATOR;
+import static com.github.orchestrator_service.core.enums.ESagaStatus.*;
+import static com.github.orchestrator_service.core.enums.ETopics.FINISH_SUCCESS;
+import static com.github.orchestrator_service.core.enums.ETopics.NOTIFY_ENDING;
+
+/**
+ * Same saga flow as the listener based {@code OrchestratorService}, with the in-flight registry
+ * replaced by the topology's state stores and the timeout monitor by a wall-clock punctuator.
+ * Replies and finish events are only accepted while the saga waits on the topic they answer, a late
+ * one neither races the compensation of a timeout nor revives a finished saga.
+ */
+@Slf4j
+class SagaStreamsProcessor implements Processor<String, Event, String, Event> {
+
+    private static final Map<String, ETopics> TOPICS = Arrays.stream(ETopics.values())
+            .collect(Collectors.toMap(ETopics::getTopic, Function.identity()));
+
+    private final SagaTransitionTable transitions;
+    private final SagaStreamsSettings settings;
+
+    private ProcessorContext<String, Event> context;
+    private KeyValueStore<String, SagaStreamState> sagas;
+    private KeyValueStore<String, String> deadlines;
+
+    SagaStreamsProcessor(SagaTransitionTable transitions, SagaStreamsSettings settings) {
+        this.transitions = transitions;
+        this.settings = settings;
+    }
+
+    @Override
+    public void init(ProcessorContext<String, Event> context) {
+        this.context = context;
+        this.sagas = context.getStateStore(SagaTopology.SAGA_STORE);
+        this.deadlines = context.getStateStore(SagaTopology.DEADLINE_STORE);
+        context.schedule(Duration.ofMillis(settings.tickMillis()), PunctuationType.WALL_CLOCK_TIME, this::expire);
+    }
+
+    @Override
+    public void process(Record<String, Event> record) {
+        var event = record.value();
+        if (event == null || event.getTransactionId() == null) {
+            return;
+        }
+        var topic = context.recordMetadata().map(RecordMetadata::topic).map(TOPICS::get).orElse(null);
+        if (topic == null) {
+            return;
+        }
+        var key = event.getTransactionId();
+        switch (topic) {
+            case START_SAGA -> {
+                if (sagas.get(key) != null) {
+                    log.warn("DROPPING DUPLICATE START EVENT {}: SAGA {} ALREADY STARTED", event.getId(), key);
+                    return;
+                }
+                event.setSource(ORCHESTRATOR);
+                event.setStatus(SUCCESS);
+                log.info("SAGA STARTED!");
+                addHistory(event, "Saga started!");
+                route(key, event, transitions.next(ORCHESTRATOR, SUCCESS), record.timestamp());
+            }
+            case BASE_ORCHESTRATOR -> {
+                var state = sagas.get(key);
+                if (state == null || !transitions.isReplyTo(state.pendingTopic(), event.getSource(), event.getStatus())) {
+                    log.warn("DROPPING REPLY FROM {} WITH STATUS {} FOR EVENT {}: SAGA {} IS NOT WAITING ON IT",
+                            event.getSource(), event.getStatus(), event.getId(), key);
+                    return;
+                }
+                log.info("SAGA CONTINUING FOR EVENT {}", event.getId());
+                route(key, event, transitions.next(event.getSource(), event.getStatus()), record.timestamp());
+            }
+            case FINISH_SUCCESS, FINISH_FAIL -> {
+                var state = sagas.get(key);
+                if (state == null || state.pendingTopic() != topic) {
+                    log.warn("DROPPING FINISH EVENT {}: SAGA {} IS NOT WAITING ON {}", event.getId(), key, topic);
+                    return;
+                }
+                if (topic == FINISH_SUCCESS) {
+                    log.info("SAGA FINISHED SUCCESSFULLY FOR EVENT {}!", event.getId());
+                    finish(key, event, SUCCESS, "Saga finished successfully!", record.timestamp());
+                } else {
+                    log.info("SAGA FINISHED WITH ERRORS FOR EVENT {}!", event.getId());
+                    finish(key, event, FAIL, "Saga finished with errors!", record.timestamp());
+                }
+            }
+            default -> log.warn("Ignoring event {} from topic {}", event.getId(), topic.getTopic());
+        }
+    }
+
+    private void route(String key, Event event, ETopics topic, long timestamp) {
+        var previous = sagas.get(key);
+        var attempts = previous == null ? 0 : previous.attempts();
+        if (previous != null) {
+            deadlines.delete(deadlineKey(previous.deadlineMillis(), key));
+        }
+        event.setEventHistory(capHistory(event.getEventHistory()));
+        var deadline = context.currentSystemTimeMs() + settings.timeoutMillis();
+        sagas.put(key, new SagaStreamState(event, topic, attempts, deadline));
+        deadlines.put(deadlineKey(deadline, key), key);
+        context.forward(new Record<>(key, event, timestamp), topic.getTopic());
+    }
+
+    private void finish(String key, Event event, ESagaStatus status, String message, long timestamp) {
+        event.setSource(ORCHESTRATOR);
+        event.setStatus(status);
+        addHistory(event, message);
+        event.setEventHistory(capHistory(event.getEventHistory()));
+        var previous = sagas.delete(key);
+        if (previous != null) {
+            deadlines.delete(deadlineKey(previous.deadlineMillis(), key));
+        }
+        context.forward(new Record<>(key, event, timestamp), NOTIFY_ENDING.getTopic());
+    }
+
+    // The deadline store iterates in key order, so the scan stops at the first saga not yet due.
+    private void expire(long now) {
+        var expired = new ArrayList<String>();
+        try (var iterator = deadlines.all()) {
+            while (iterator.hasNext()) {
+                var entry = iterator.next();
+                if (deadlineOf(entry.key) > now) {
+                    break;
+                }
+                expired.add(entry.value);
+            }
+        }
+        for (var key : expired) {
+            var state = sagas.get(key);
+            if (state != null) {
+                handleTimeout(key, state, now);
+            }
+        }
+    }
+
+    private void handleTimeout(String key, SagaStreamState state, long now) {
+        var event = state.event();
+        var attempts = state.attempts() + 1;
+        var participant = transitions.consumerOf(state.pendingTopic());
+        log.info("SAGA TIMED OUT FOR EVENT {} WAITING ON TOPIC {} | ATTEMPT {}",
+                event.getId(), state.pendingTopic(), attempts);
+        if (attempts > settings.maxAttempts()) {
+            finish(key, event, FAIL, "Saga finished with errors!", now);
+            return;
+        }
+        sagas.put(key, new SagaStreamState(event, state.pendingTopic(), attempts, state.deadlineMillis()));
+        if (participant == null) {
+            event.setSource(ORCHESTRATOR);
+            event.setStatus(FINISH_SUCCESS.equals(state.pendingTopic()) ? SUCCESS : FAIL);
+            route(key, event, state.pendingTopic(), now);
+        } else {
+            event.setSource(participant);
+            event.setStatus(ROLLBACK_PENDING);
+            addHistory(event, "Saga timed out waiting for ".concat(participant.name()));
+            route(key, event, transitions.next(participant, ROLLBACK_PENDING), now);
+        }
+    }
+
+    private List<History> capHistory(List<History> history) {
+        var maxEntries = settings.maxHistoryEntries();
+        if (history == null || history.size() <= maxEntries) {
+            return history;
+        }
+        return new ArrayList<>(history.subList(history.size() - maxEntries, history.size()));
+    }
+
+    private static void addHistory(Event event, String message) {
+        var history = History
+                .builder()
+                .source(event.getSource())
+                .status(event.getStatus())
+                .message(message)
+                .createdAt(LocalDateTime.now())
+                .build();
+        event.addToHistory(history);
+    }
+
+    // Zero padded, so the lexicographic order of the keys is the order of the deadlines.
+    private static String deadlineKey(long deadline, String transactionId) {
+        return String.format("%019d:%s", deadline, transactionId);
+    }
+
+    private static long deadlineOf(String deadlineKey) {
+        return Long.parseLong(deadlineKey.substring(0, deadlineKey.indexOf(':')));
+    }
+}
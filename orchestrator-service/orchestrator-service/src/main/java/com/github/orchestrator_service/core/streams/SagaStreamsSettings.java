@@ -0,0 +1,7 @@
+package com.github.orchestrator_service.core.streams;
+
+public record SagaStreamsSettings(long timeoutMillis,
+                                  long tickMillis,
+                                  int maxAttempts,
+                                  int maxHistoryEntries) {
+}
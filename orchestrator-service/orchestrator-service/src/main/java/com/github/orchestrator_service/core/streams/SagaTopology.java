@@ -0,0 +1,75 @@
+package com.github.orchestrator_service.core.streams;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.orchestrator_service.core.dto.Event;
+import com.github.orchestrator_service.core.enums.ETopics;
+import com.github.orchestrator_service.core.saga.SagaHandler;
+import com.github.orchestrator_service.core.saga.SagaTransitionTable;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.state.Stores;
+
+import java.io.IOException;
+import java.util.EnumSet;
+
+import static com.github.orchestrator_service.core.enums.ETopics.*;
+
+/**
+ * Topology of the Kafka Streams engine: the orchestrator topics feed a single processor which
+ * routes through the {@link SagaTransitionTable} and writes to one sink per {@link ETopics}.
+ *
+ * <p>Saga state lives in a persistent store keyed by transaction id, next to a second store
+ * ordered by deadline that the timeout punctuator scans. Both are backed by changelog topics, so a
+ * restarted or rebalanced instance picks up the sagas of its partitions where they were.
+ */
+public final class SagaTopology {
+
+    public static final String SAGA_STORE = "saga-state";
+    public static final String DEADLINE_STORE = "saga-deadlines";
+
+    static final String SOURCE = "saga-source";
+    static final String PROCESSOR = "saga-processor";
+    static final EnumSet<ETopics> INPUT_TOPICS = EnumSet.of(START_SAGA, BASE_ORCHESTRATOR, FINISH_SUCCESS, FINISH_FAIL);
+
+    private SagaTopology() {
+    }
+
+    public static Topology build(Serde<Event> eventSerde, Serde<SagaStreamState> stateSerde, SagaStreamsSettings settings) {
+        var transitions = SagaTransitionTable.compile(SagaHandler.SAGA_HANDLER);
+        var topology = new Topology();
+        topology.addSource(SOURCE, Serdes.String().deserializer(), eventSerde.deserializer(),
+                INPUT_TOPICS.stream().map(ETopics::getTopic).toArray(String[]::new));
+        topology.addProcessor(PROCESSOR, () -> new SagaStreamsProcessor(transitions, settings), SOURCE);
+        topology.addStateStore(Stores.keyValueStoreBuilder(
+                Stores.persistentKeyValueStore(SAGA_STORE), Serdes.String(), stateSerde), PROCESSOR);
+        topology.addStateStore(Stores.keyValueStoreBuilder(
+                Stores.persistentKeyValueStore(DEADLINE_STORE), Serdes.String(), Serdes.String()), PROCESSOR);
+        for (var topic : EnumSet.complementOf(EnumSet.of(START_SAGA, BASE_ORCHESTRATOR))) {
+            topology.addSink(topic.getTopic(), topic.getTopic(),
+                    Serdes.String().serializer(), eventSerde.serializer(), PROCESSOR);
+        }
+        return topology;
+    }
+
+    public static Serde<SagaStreamState> stateSerde(ObjectMapper objectMapper) {
+        var reader = objectMapper.readerFor(SagaStreamState.class);
+        var writer = objectMapper.writerFor(SagaStreamState.class);
+        return Serdes.serdeFrom(
+                (topic, state) -> {
+                    try {
+                        return state == null ? null : writer.writeValueAsBytes(state);
+                    } catch (IOException e) {
+                        throw new SerializationException("Failed to write saga state", e);
+                    }
+                },
+                (topic, data) -> {
+                    try {
+                        return data == null ? null : reader.readValue(data);
+                    } catch (IOException e) {
+                        throw new SerializationException("Failed to read saga state", e);
+                    }
+                });
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.orchestrator_service.config.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerPartitionAssignor.GroupSubscription;
+import org.apache.kafka.clients.consumer.ConsumerPartitionAssignor.Subscription;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SagaPartitionAssignorTest {
+
+    private static final String START_SAGA = "start-saga";
+    private static final String ORCHESTRATOR = "orchestrator";
+    private static final int PARTITIONS = 6;
+
+    @Test
+    void givesEveryTopicOfAPartitionToTheSameInstance() {
+        var subscriptions = new HashMap<String, Subscription>();
+        subscriptions.put("a-start-1", subscription(START_SAGA, "instance-a"));
+        subscriptions.put("a-start-2", subscription(START_SAGA, "instance-a"));
+        subscriptions.put("a-orchestrator", subscription(ORCHESTRATOR, "instance-a"));
+        subscriptions.put("b-start", subscription(START_SAGA, "instance-b"));
+        subscriptions.put("b-orchestrator", subscription(ORCHESTRATOR, "instance-b"));
+
+        var owners = assign(subscriptions);
+
+        assertEquals(2 * PARTITIONS, owners.size());
+        var instances = new HashSet<String>();
+        for (var partition = 0; partition < PARTITIONS; partition++) {
+            var instance = instanceOf(owners.get(new TopicPartition(START_SAGA, partition)));
+            assertEquals(instance, instanceOf(owners.get(new TopicPartition(ORCHESTRATOR, partition))));
+            instances.add(instance);
+        }
+        assertEquals(Set.of("a", "b"), instances);
+    }
+
+    @Test
+    void leavesInstancesNotSubscribedToEveryTopicWithoutPartitions() {
+        var subscriptions = new HashMap<String, Subscription>();
+        subscriptions.put("a-start", subscription(START_SAGA, "instance-a"));
+        subscriptions.put("a-orchestrator", subscription(ORCHESTRATOR, "instance-a"));
+        subscriptions.put("b-start", subscription(START_SAGA, "instance-b"));
+
+        var owners = assign(subscriptions);
+
+        assertEquals(2 * PARTITIONS, owners.size());
+        assertTrue(owners.values().stream().allMatch(member -> member.startsWith("a-")));
+    }
+
+    private static Map<TopicPartition, String> assign(Map<String, Subscription> subscriptions) {
+        var assignor = new SagaPartitionAssignor();
+        assignor.configure(Map.of(SagaPartitionAssignor.INSTANCE_ID_CONFIG, "instance-a"));
+        var assignments = assignor.assign(cluster(), new GroupSubscription(subscriptions)).groupAssignment();
+        var owners = new HashMap<TopicPartition, String>();
+        assignments.forEach((member, assignment) -> assignment.partitions()
+                .forEach(partition -> assertEquals(null, owners.put(partition, member))));
+        return owners;
+    }
+
+    private static Subscription subscription(String topic, String instanceId) {
+        return new Subscription(List.of(topic), ByteBuffer.wrap(instanceId.getBytes(UTF_8)));
+    }
+
+    private static String instanceOf(String member) {
+        return member.substring(0, member.indexOf('-'));
+    }
+
+    private static Cluster cluster() {
+        var node = new Node(0, "localhost", 9092);
+        var partitions = new ArrayList<PartitionInfo>();
+        for (var topic : List.of(START_SAGA, ORCHESTRATOR)) {
+            for (var partition = 0; partition < PARTITIONS; partition++) {
+                partitions.add(new PartitionInfo(topic, partition, node, new Node[]{node}, new Node[]{node}));
+            }
+        }
+        return new Cluster("saga", List.of(node), partitions, Set.of(), Set.of());
+    }
+}
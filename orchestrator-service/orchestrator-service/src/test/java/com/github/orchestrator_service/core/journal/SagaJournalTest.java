@@ -0,0 +1,165 @@
+package com.github.orchestrator_service.core.journal;
+
+import com.github.orchestrator_service.core.enums.ETopics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static com.github.orchestrator_service.core.enums.EEventSource.ORCHESTRATOR;
+import static com.github.orchestrator_service.core.enums.EEventSource.PAYMENT_SERVICE;
+import static com.github.orchestrator_service.core.enums.ESagaStatus.SUCCESS;
+import static com.github.orchestrator_service.core.enums.ETopics.INVENTORY_SUCCESS;
+import static com.github.orchestrator_service.core.enums.ETopics.PAYMENT_SUCCESS;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SagaJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversTheLastRecordOfEachRunningSaga() throws IOException {
+        var journal = journal(SEGMENT_SIZE);
+        journal.append(record("tx-1", PAYMENT_SUCCESS));
+        journal.append(record("tx-1", INVENTORY_SUCCESS));
+        journal.append(record("tx-2", PAYMENT_SUCCESS));
+        journal.append(record("tx-2", null));
+        journal.close();
+
+        var recovered = List.copyOf(journal(SEGMENT_SIZE).recover());
+
+        assertEquals(1, recovered.size());
+        assertEquals("tx-1", recovered.get(0).transactionId());
+        assertEquals(INVENTORY_SUCCESS, recovered.get(0).nextTopic());
+    }
+
+    @Test
+    void awaitsTheFlushThatCoversTheRecord() throws IOException {
+        var journal = journal(SEGMENT_SIZE);
+        var first = journal.append(record("tx-1", PAYMENT_SUCCESS));
+        var second = journal.append(record("tx-2", PAYMENT_SUCCESS));
+
+        assertTrue(second > first);
+        journal.awaitDurable(second);
+        journal.awaitDurable(first);
+        journal.close();
+
+        assertEquals(2, journal(SEGMENT_SIZE).recover().size());
+    }
+
+    @Test
+    void refusesToWaitOnceClosedWithoutTheRecord() throws IOException {
+        var journal = journal(SEGMENT_SIZE);
+        var sequence = journal.append(record("tx-1", PAYMENT_SUCCESS));
+        journal.close();
+
+        journal.awaitDurable(sequence);
+        assertThrows(IllegalStateException.class, () -> journal.awaitDurable(sequence + 1));
+    }
+
+    @Test
+    void stopsAtARecordWhoseChecksumDoesNotMatch() throws IOException {
+        var journal = journal(SEGMENT_SIZE);
+        journal.append(record("tx-1", PAYMENT_SUCCESS));
+        journal.append(record("tx-2", PAYMENT_SUCCESS));
+        journal.close();
+
+        var segment = onlySegment();
+        var bytes = Files.readAllBytes(segment);
+        bytes[indexOf(bytes, "tx-2")] ^= 0x7F;
+        Files.write(segment, bytes);
+
+        var recovered = List.copyOf(journal(SEGMENT_SIZE).recover());
+
+        assertEquals(List.of("tx-1"), recovered.stream().map(SagaJournalRecord::transactionId).toList());
+    }
+
+    @Test
+    void stopsAtARecordTornByACrash() throws IOException {
+        var journal = journal(SEGMENT_SIZE);
+        journal.append(record("tx-1", PAYMENT_SUCCESS));
+        journal.append(record("tx-2", PAYMENT_SUCCESS));
+        journal.close();
+
+        var segment = onlySegment();
+        try (var channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(indexOf(Files.readAllBytes(segment), "tx-2"));
+        }
+
+        var recovered = List.copyOf(journal(SEGMENT_SIZE).recover());
+
+        assertEquals(List.of("tx-1"), recovered.stream().map(SagaJournalRecord::transactionId).toList());
+    }
+
+    @Test
+    void keepsSegmentsUntilTheirSagasFinish() throws IOException {
+        var journal = journal(256);
+        journal.append(record("tx-live", PAYMENT_SUCCESS));
+        for (var index = 0; index < 20; index++) {
+            journal.append(record("tx-" + index, PAYMENT_SUCCESS));
+            journal.append(record("tx-" + index, null));
+        }
+
+        assertTrue(Files.exists(segment(1)));
+        assertFalse(Files.exists(segment(2)));
+
+        journal.append(record("tx-live", null));
+        for (var index = 20; index < 30; index++) {
+            journal.append(record("tx-" + index, null));
+        }
+        journal.close();
+
+        assertFalse(Files.exists(segment(1)));
+        assertTrue(journal(256).recover().isEmpty());
+    }
+
+    private SagaJournal journal(int segmentSize) throws IOException {
+        var journal = new SagaJournal(directory, segmentSize);
+        journal.open();
+        return journal;
+    }
+
+    private static SagaJournalRecord record(String transactionId, ETopics nextTopic) {
+        var source = nextTopic == null ? ORCHESTRATOR : PAYMENT_SERVICE;
+        return new SagaJournalRecord(transactionId, "order-1", "event-1", source, SUCCESS, nextTopic,
+                System.currentTimeMillis());
+    }
+
+    private Path onlySegment() throws IOException {
+        try (var files = Files.list(directory)) {
+            var segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    private Path segment(long sequence) {
+        return directory.resolve(String.format("saga-journal-%020d.log", sequence));
+    }
+
+    private static int indexOf(byte[] bytes, String value) {
+        var target = value.getBytes(UTF_8);
+        for (var index = 0; index <= bytes.length - target.length; index++) {
+            var match = true;
+            for (var offset = 0; offset < target.length && match; offset++) {
+                match = bytes[index + offset] == target[offset];
+            }
+            if (match) {
+                return index;
+            }
+        }
+        throw new AssertionError(value + " not found");
+    }
+}
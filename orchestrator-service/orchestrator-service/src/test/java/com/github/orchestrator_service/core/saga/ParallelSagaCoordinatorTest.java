@@ -0,0 +1,115 @@
+package com.github.orchestrator_service.core.saga;
+
+import com.github.orchestrator_service.core.dto.Event;
+import com.github.orchestrator_service.core.dto.History;
+import com.github.orchestrator_service.core.enums.EEventSource;
+import com.github.orchestrator_service.core.enums.ESagaStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.orchestrator_service.core.enums.EEventSource.*;
+import static com.github.orchestrator_service.core.enums.ESagaStatus.*;
+import static com.github.orchestrator_service.core.enums.ETopics.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ParallelSagaCoordinatorTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 15, 10, 30);
+
+    private final ParallelSagaCoordinator coordinator = new ParallelSagaCoordinator();
+
+    @Test
+    void joinsTheFirstStageBeforeStartingTheNext() {
+        var started = coordinator.start(event(ORCHESTRATOR, SUCCESS));
+        assertEquals(List.of(PRODUCT_VALIDATION_SUCCESS, INVENTORY_SUCCESS), started.topics());
+
+        var waiting = coordinator.onReply(event(PRODUCT_VALIDATION_SERVICE, SUCCESS));
+        assertEquals(List.of(), waiting.topics());
+        assertEquals(INVENTORY_SUCCESS, waiting.awaiting());
+
+        assertEquals(List.of(PAYMENT_SUCCESS), coordinator.onReply(event(INVENTORY_SERVICE, SUCCESS)).topics());
+        assertEquals(List.of(FINISH_SUCCESS), coordinator.onReply(event(PAYMENT_SERVICE, SUCCESS)).topics());
+    }
+
+    @Test
+    void compensatesOnlyTheBranchesThatSucceeded() {
+        coordinator.start(event(ORCHESTRATOR, SUCCESS));
+        coordinator.onReply(event(INVENTORY_SERVICE, SUCCESS));
+
+        var failed = coordinator.onReply(event(PRODUCT_VALIDATION_SERVICE, ROLLBACK_PENDING));
+        assertEquals(List.of(PRODUCT_VALIDATION_FAIL, INVENTORY_FAIL), failed.topics());
+
+        assertEquals(List.of(), coordinator.onReply(event(PRODUCT_VALIDATION_SERVICE, FAIL)).topics());
+        assertEquals(List.of(FINISH_FAIL), coordinator.onReply(event(INVENTORY_SERVICE, FAIL)).topics());
+    }
+
+    @Test
+    void ignoresDuplicatedReplies() {
+        coordinator.start(event(ORCHESTRATOR, SUCCESS));
+        coordinator.onReply(event(PRODUCT_VALIDATION_SERVICE, SUCCESS));
+
+        assertEquals(List.of(), coordinator.onReply(event(PRODUCT_VALIDATION_SERVICE, SUCCESS)).topics());
+        assertEquals(List.of(PAYMENT_SUCCESS), coordinator.onReply(event(INVENTORY_SERVICE, SUCCESS)).topics());
+    }
+
+    @Test
+    void acceptsAReplyRedeliveredAfterItsTransactionAborted() {
+        coordinator.start(event(ORCHESTRATOR, SUCCESS));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            coordinator.onReply(event(PRODUCT_VALIDATION_SERVICE, SUCCESS));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        var waiting = coordinator.onReply(event(INVENTORY_SERVICE, SUCCESS));
+        assertEquals(List.of(), waiting.topics());
+        assertEquals(PRODUCT_VALIDATION_SUCCESS, waiting.awaiting());
+        assertEquals(List.of(PAYMENT_SUCCESS), coordinator.onReply(event(PRODUCT_VALIDATION_SERVICE, SUCCESS)).topics());
+    }
+
+    @Test
+    void mergesTheHistoryOfEveryBranch() {
+        var start = event(ORCHESTRATOR, SUCCESS);
+        var started = new History(ORCHESTRATOR, SUCCESS, "Saga started!", NOW);
+        start.addToHistory(started);
+        coordinator.start(start);
+
+        var validated = event(PRODUCT_VALIDATION_SERVICE, SUCCESS);
+        validated.setEventHistory(new ArrayList<>(List.of(started,
+                new History(PRODUCT_VALIDATION_SERVICE, SUCCESS, "Products are validated successfully!", NOW))));
+        coordinator.onReply(validated);
+        var updated = event(INVENTORY_SERVICE, SUCCESS);
+        updated.setEventHistory(new ArrayList<>(List.of(started,
+                new History(INVENTORY_SERVICE, SUCCESS, "Inventory updated successfully!", NOW))));
+        coordinator.onReply(updated);
+
+        assertEquals(3, updated.getEventHistory().size());
+    }
+
+    @Test
+    void returnsNothingForUnknownSagas() {
+        assertNull(coordinator.onReply(event(PAYMENT_SERVICE, SUCCESS)));
+    }
+
+    private static Event event(EEventSource source, ESagaStatus status) {
+        return Event
+                .builder()
+                .id("event-1")
+                .transactionId("tx-1")
+                .orderId("order-1")
+                .source(source)
+                .status(status)
+                .createdAt(NOW)
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.orchestrator_service.core.saga;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SagaTimingWheelTest {
+
+    private static final long TICK = 10;
+
+    @Test
+    void expiresOnlyAfterDeadline() {
+        var wheel = new SagaTimingWheel(8, TICK, 0);
+        var saga = new InFlightSaga(null, "tx-1", "order-1", "event-1");
+        wheel.schedule(saga, 35);
+
+        assertTrue(advance(wheel, 30).isEmpty());
+        assertEquals(List.of(saga), advance(wheel, 40));
+        assertFalse(saga.isScheduled());
+    }
+
+    @Test
+    void keepsDeadlinesBeyondOneRotation() {
+        var wheel = new SagaTimingWheel(8, TICK, 0);
+        var saga = new InFlightSaga(null, "tx-1", "order-1", "event-1");
+        wheel.schedule(saga, 8 * TICK * 3 + 5);
+
+        assertTrue(advance(wheel, 8 * TICK * 3).isEmpty());
+        assertEquals(List.of(saga), advance(wheel, 8 * TICK * 3 + TICK));
+    }
+
+    @Test
+    void cancelledAndRescheduledSagasAreNotExpired() {
+        var wheel = new SagaTimingWheel(8, TICK, 0);
+        var cancelled = new InFlightSaga(null, "tx-1", "order-1", "event-1");
+        var rescheduled = new InFlightSaga(null, "tx-2", "order-2", "event-2");
+        wheel.schedule(cancelled, 20);
+        wheel.schedule(rescheduled, 20);
+
+        wheel.cancel(cancelled);
+        wheel.schedule(rescheduled, 200);
+
+        assertTrue(advance(wheel, 100).isEmpty());
+        assertEquals(List.of(rescheduled), advance(wheel, 200));
+    }
+
+    private static List<InFlightSaga> advance(SagaTimingWheel wheel, long now) {
+        var expired = new ArrayList<InFlightSaga>();
+        wheel.advance(now, expired::add);
+        return expired;
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.orchestrator_service.core.saga;
+
+import com.github.orchestrator_service.config.exception.ValidationException;
+import com.github.orchestrator_service.core.enums.EEventSource;
+import com.github.orchestrator_service.core.enums.ESagaStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static com.github.orchestrator_service.core.enums.EEventSource.*;
+import static com.github.orchestrator_service.core.enums.ESagaStatus.*;
+import static com.github.orchestrator_service.core.enums.ETopics.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SagaTransitionTableTest {
+
+    @Test
+    void resolvesEveryRowOfTheSagaHandler() {
+        var table = SagaTransitionTable.compile(SagaHandler.SAGA_HANDLER);
+
+        for (var row : SagaHandler.SAGA_HANDLER) {
+            var source = (EEventSource) row[SagaHandler.EVENT_SOURCE_INDEX];
+            var status = (ESagaStatus) row[SagaHandler.SAGA_STATUS_INDEX];
+            assertEquals(row[SagaHandler.TOPIC_INDEX], table.next(source, status));
+        }
+    }
+
+    @Test
+    void rejectsUnknownTransition() {
+        var table = SagaTransitionTable.compile(SagaHandler.SAGA_HANDLER);
+
+        assertThrows(ValidationException.class, () -> table.next(ORCHESTRATOR, ROLLBACK_PENDING));
+    }
+
+    @Test
+    void rejectsAmbiguousTransition() {
+        var definition = Arrays.copyOf(SagaHandler.SAGA_HANDLER, SagaHandler.SAGA_HANDLER.length + 1);
+        definition[definition.length - 1] = new Object[]{PAYMENT_SERVICE, SUCCESS, FINISH_SUCCESS};
+
+        assertThrows(ValidationException.class, () -> SagaTransitionTable.compile(definition));
+    }
+
+    @Test
+    void rejectsMissingTransition() {
+        var definition = Arrays.stream(SagaHandler.SAGA_HANDLER)
+                .filter(row -> !(INVENTORY_SERVICE.equals(row[0]) && FAIL.equals(row[1])))
+                .toArray(Object[][]::new);
+
+        assertThrows(ValidationException.class, () -> SagaTransitionTable.compile(definition));
+    }
+
+    @Test
+    void acceptsOnlyRepliesToThePendingTopic() {
+        var table = SagaTransitionTable.compile(SagaHandler.SAGA_HANDLER);
+
+        assertTrue(table.isReplyTo(PAYMENT_SUCCESS, PAYMENT_SERVICE, SUCCESS));
+        assertTrue(table.isReplyTo(PAYMENT_SUCCESS, PAYMENT_SERVICE, ROLLBACK_PENDING));
+        assertTrue(table.isReplyTo(PAYMENT_FAIL, PAYMENT_SERVICE, FAIL));
+        assertFalse(table.isReplyTo(PAYMENT_FAIL, PAYMENT_SERVICE, SUCCESS));
+        assertFalse(table.isReplyTo(PAYMENT_SUCCESS, INVENTORY_SERVICE, SUCCESS));
+        assertFalse(table.isReplyTo(FINISH_SUCCESS, PAYMENT_SERVICE, SUCCESS));
+    }
+}
@@ -0,0 +1,187 @@
+package com.github.orchestrator_service.core.streams;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.orchestrator_service.core.dto.Event;
+import com.github.orchestrator_service.core.dto.Order;
+import com.github.orchestrator_service.core.enums.EEventSource;
+import com.github.orchestrator_service.core.enums.ESagaStatus;
+import com.github.orchestrator_service.core.enums.ETopics;
+import com.github.orchestrator_service.core.utils.EventCodec;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+import static com.github.orchestrator_service.core.enums.EEventSource.*;
+import static com.github.orchestrator_service.core.enums.ESagaStatus.*;
+import static com.github.orchestrator_service.core.enums.ETopics.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SagaTopologyTest {
+
+    private static final String TRANSACTION_ID = "tx-1";
+    private static final long TIMEOUT_MILLIS = 1000;
+
+    @TempDir
+    Path stateDir;
+
+    private final EventCodec codec = new EventCodec();
+    private final Serde<Event> eventSerde = Serdes.serdeFrom(
+            (topic, event) -> codec.encode(event),
+            (topic, data) -> codec.decode(data));
+
+    private TopologyTestDriver driver;
+
+    @BeforeEach
+    void setUp() {
+        var objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        var topology = SagaTopology.build(eventSerde, SagaTopology.stateSerde(objectMapper),
+                new SagaStreamsSettings(TIMEOUT_MILLIS, 100, 1, 50));
+        var props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "saga-topology-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        driver = new TopologyTestDriver(topology, props);
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    void routesASagaThroughEveryParticipant() {
+        pipe(START_SAGA, event(null, null));
+        var started = read(PRODUCT_VALIDATION_SUCCESS);
+        assertEquals(ORCHESTRATOR, started.getSource());
+        assertEquals(1, started.getEventHistory().size());
+
+        pipe(BASE_ORCHESTRATOR, event(PRODUCT_VALIDATION_SERVICE, SUCCESS));
+        assertEquals(TRANSACTION_ID, read(PAYMENT_SUCCESS).getTransactionId());
+        pipe(BASE_ORCHESTRATOR, event(PAYMENT_SERVICE, SUCCESS));
+        assertEquals(TRANSACTION_ID, read(INVENTORY_SUCCESS).getTransactionId());
+        pipe(BASE_ORCHESTRATOR, event(INVENTORY_SERVICE, SUCCESS));
+        assertEquals(TRANSACTION_ID, read(FINISH_SUCCESS).getTransactionId());
+
+        pipe(FINISH_SUCCESS, event(ORCHESTRATOR, SUCCESS));
+        var finished = read(NOTIFY_ENDING);
+        assertEquals(SUCCESS, finished.getStatus());
+        assertNull(driver.getKeyValueStore(SagaTopology.SAGA_STORE).get(TRANSACTION_ID));
+    }
+
+    @Test
+    void compensatesAParticipantThatTimesOut() {
+        pipe(START_SAGA, event(null, null));
+        read(PRODUCT_VALIDATION_SUCCESS);
+
+        driver.advanceWallClockTime(Duration.ofMillis(TIMEOUT_MILLIS + 100));
+
+        var compensation = read(PRODUCT_VALIDATION_FAIL);
+        assertEquals(PRODUCT_VALIDATION_SERVICE, compensation.getSource());
+        assertEquals(ROLLBACK_PENDING, compensation.getStatus());
+    }
+
+    @Test
+    void failsTheSagaOnceTimeoutAttemptsAreExhausted() {
+        pipe(START_SAGA, event(null, null));
+        read(PRODUCT_VALIDATION_SUCCESS);
+
+        driver.advanceWallClockTime(Duration.ofMillis(TIMEOUT_MILLIS + 100));
+        read(PRODUCT_VALIDATION_FAIL);
+        driver.advanceWallClockTime(Duration.ofMillis(TIMEOUT_MILLIS + 100));
+
+        var failed = read(NOTIFY_ENDING);
+        assertEquals(FAIL, failed.getStatus());
+        assertNull(driver.getKeyValueStore(SagaTopology.SAGA_STORE).get(TRANSACTION_ID));
+        assertTrue(output(PRODUCT_VALIDATION_FAIL).isEmpty());
+    }
+
+    @Test
+    void doesNotStartASagaTwice() {
+        pipe(START_SAGA, event(null, null));
+        read(PRODUCT_VALIDATION_SUCCESS);
+
+        pipe(START_SAGA, event(null, null));
+
+        assertTrue(output(PRODUCT_VALIDATION_SUCCESS).isEmpty());
+    }
+
+    @Test
+    void dropsAReplyArrivingAfterATimeout() {
+        pipe(START_SAGA, event(null, null));
+        read(PRODUCT_VALIDATION_SUCCESS);
+
+        driver.advanceWallClockTime(Duration.ofMillis(TIMEOUT_MILLIS + 100));
+        read(PRODUCT_VALIDATION_FAIL);
+        pipe(BASE_ORCHESTRATOR, event(PRODUCT_VALIDATION_SERVICE, SUCCESS));
+
+        assertTrue(output(PAYMENT_SUCCESS).isEmpty());
+        var state = (SagaStreamState) driver.getKeyValueStore(SagaTopology.SAGA_STORE).get(TRANSACTION_ID);
+        assertEquals(PRODUCT_VALIDATION_FAIL, state.pendingTopic());
+    }
+
+    @Test
+    void doesNotReviveAFinishedSaga() {
+        pipe(START_SAGA, event(null, null));
+        read(PRODUCT_VALIDATION_SUCCESS);
+
+        driver.advanceWallClockTime(Duration.ofMillis(TIMEOUT_MILLIS + 100));
+        read(PRODUCT_VALIDATION_FAIL);
+        driver.advanceWallClockTime(Duration.ofMillis(TIMEOUT_MILLIS + 100));
+        read(NOTIFY_ENDING);
+
+        pipe(BASE_ORCHESTRATOR, event(PRODUCT_VALIDATION_SERVICE, SUCCESS));
+        pipe(FINISH_FAIL, event(ORCHESTRATOR, FAIL));
+
+        assertTrue(output(PAYMENT_SUCCESS).isEmpty());
+        assertTrue(output(NOTIFY_ENDING).isEmpty());
+        assertNull(driver.getKeyValueStore(SagaTopology.SAGA_STORE).get(TRANSACTION_ID));
+    }
+
+    private void pipe(ETopics topic, Event event) {
+        driver
+                .createInputTopic(topic.getTopic(), new StringSerializer(), eventSerde.serializer())
+                .pipeInput(TRANSACTION_ID, event);
+    }
+
+    private Event read(ETopics topic) {
+        return output(topic).readValue();
+    }
+
+    private TestOutputTopic<String, Event> output(ETopics topic) {
+        return driver.createOutputTopic(topic.getTopic(), new StringDeserializer(), eventSerde.deserializer());
+    }
+
+    private static Event event(EEventSource source, ESagaStatus status) {
+        var order = Order
+                .builder()
+                .id("order-1")
+                .transactionId(TRANSACTION_ID)
+                .build();
+        return Event
+                .builder()
+                .id("event-1")
+                .transactionId(TRANSACTION_ID)
+                .orderId("order-1")
+                .payload(order)
+                .source(source)
+                .status(status)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.orchestrator_service.core.utils;
+
+import com.github.orchestrator_service.core.dto.Event;
+import com.github.orchestrator_service.core.dto.EventEnvelope;
+import com.github.orchestrator_service.core.dto.History;
+import com.github.orchestrator_service.core.dto.Order;
+import com.github.orchestrator_service.core.dto.OrderProducts;
+import com.github.orchestrator_service.core.dto.Product;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.orchestrator_service.core.enums.EEventSource.ORCHESTRATOR;
+import static com.github.orchestrator_service.core.enums.EEventSource.PAYMENT_SERVICE;
+import static com.github.orchestrator_service.core.enums.ESagaStatus.ROLLBACK_PENDING;
+import static com.github.orchestrator_service.core.enums.ESagaStatus.SUCCESS;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventCodecTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 15, 10, 30, 45, 123_000_000);
+
+    private final EventCodec codec = new EventCodec();
+
+    @Test
+    void roundTripsAFullEvent() {
+        var order = new Order("order-1",
+                List.of(new OrderProducts(new Product("COMIC_BOOKS", 15.5), 3), new OrderProducts(null, 1)),
+                NOW, "tx-1", 62.0, 4);
+        var history = new ArrayList<History>();
+        history.add(new History(ORCHESTRATOR, SUCCESS, "Saga started!", NOW));
+        history.add(new History(PAYMENT_SERVICE, ROLLBACK_PENDING, "Fail to realize payment: \u00e7", NOW));
+        var event = new Event("event-1", "tx-1", "order-1", order, PAYMENT_SERVICE, ROLLBACK_PENDING, history, NOW);
+
+        var encoded = codec.encode(event);
+
+        assertTrue(codec.isEncoded(encoded));
+        assertEquals(event, codec.decode(encoded));
+    }
+
+    @Test
+    void roundTripsAnEmptyEvent() {
+        assertEquals(new Event(), codec.decode(codec.encode(new Event())));
+    }
+
+    @Test
+    void roundTripsAnEnvelope() {
+        var first = new Event("event-1", "tx-1", "order-1", null, PAYMENT_SERVICE, SUCCESS, null, NOW);
+        var second = new Event("event-2", "tx-2", "order-2", null, ORCHESTRATOR, ROLLBACK_PENDING, new ArrayList<>(), NOW);
+        var envelope = new EventEnvelope(List.of(first, second));
+
+        var encoded = codec.encodeEnvelope(envelope);
+
+        assertTrue(codec.isEnvelope(encoded));
+        assertFalse(codec.isEncoded(encoded));
+        assertEquals(envelope, codec.decodeEnvelope(encoded));
+    }
+
+    @Test
+    void leavesJsonToTheJsonPath() {
+        assertFalse(codec.isEncoded("{\"id\":\"event-1\"}".getBytes(UTF_8)));
+    }
+
+    @Test
+    void rejectsUnknownVersions() {
+        var encoded = codec.encode(new Event());
+        encoded[1] = EventCodec.VERSION + 1;
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(encoded));
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.orchestrator_service.core.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SagaLogTest {
+
+    @Test
+    void samplesEveryTransactionAtFullRate() {
+        var sagaLog = sagaLog(1.0);
+
+        assertTrue(sagaLog.isSampled("tx-1"));
+        assertTrue(sagaLog.isSampled(null));
+    }
+
+    @Test
+    void samplesNothingAtZeroRate() {
+        assertFalse(sagaLog(0.0).isSampled("tx-1"));
+    }
+
+    @Test
+    void samplingDecisionIsStablePerTransaction() {
+        var first = sagaLog(0.1);
+        var second = sagaLog(0.1);
+
+        IntStream.range(0, 1_000)
+                .mapToObj(index -> UUID.randomUUID().toString())
+                .forEach(transactionId -> assertEquals(first.isSampled(transactionId), second.isSampled(transactionId)));
+    }
+
+    @Test
+    void samplesRoughlyTheConfiguredShare() {
+        var sagaLog = sagaLog(0.1);
+
+        var sampled = IntStream.range(0, 20_000)
+                .mapToObj(index -> "tx-" + index)
+                .filter(sagaLog::isSampled)
+                .count();
+
+        assertTrue(sampled > 1_500 && sampled < 2_500, "sampled " + sampled);
+    }
+
+    private static SagaLog sagaLog(double sampleRate) {
+        var sagaLog = new SagaLog(null);
+        ReflectionTestUtils.setField(sagaLog, "sampleRate", sampleRate);
+        return sagaLog;
+    }
+}
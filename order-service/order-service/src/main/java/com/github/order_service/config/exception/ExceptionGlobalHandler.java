@@ -1,15 +1,21 @@
 package com.github.order_service.config.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 @ControllerAdvice
+@AllArgsConstructor
 public class ExceptionGlobalHandler {
 
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(ValidationException.class)
     public ResponseEntity<?> handleValidationException(ValidationException ex) {
+        meterRegistry.counter("saga.validation.errors", "source", "ORDER_SERVICE").increment();
         ExceptionDetails details = new ExceptionDetails(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
         return new  ResponseEntity<>(details, HttpStatus.BAD_REQUEST);
 
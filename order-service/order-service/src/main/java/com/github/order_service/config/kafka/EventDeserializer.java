@@ -0,0 +1,31 @@
+package com.github.order_service.config.kafka;
+
+import com.github.order_service.core.document.Event;
+import com.github.order_service.core.utils.EventCodec;
+import com.github.order_service.core.utils.JsonUtil;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Reads events in either wire format; binary payloads are recognized by the codec's magic byte,
+ * anything else is parsed as JSON.
+ */
+@RequiredArgsConstructor
+public class EventDeserializer implements Deserializer<Event> {
+
+    private final EventCodec codec;
+    private final JsonUtil jsonUtil;
+
+    @Override
+    public Event deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return codec.isEncoded(data) ? codec.decode(data) : jsonUtil.toEvent(data);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Failed to deserialize event from topic " + topic, e);
+        }
+    }
+}
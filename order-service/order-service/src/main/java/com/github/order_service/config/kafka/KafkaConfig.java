@@ -1,5 +1,9 @@
 package com.github.order_service.config.kafka;
 
+import com.github.order_service.core.document.Event;
+import com.github.order_service.core.enums.EWireFormat;
+import com.github.order_service.core.utils.EventCodec;
+import com.github.order_service.core.utils.JsonUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.NewTopic;
@@ -10,12 +14,17 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 @EnableKafka
 @Configuration
@@ -23,8 +32,13 @@ import java.util.Map;
 @Slf4j
 public class KafkaConfig {
 
-    private static final Integer PARTITION_COUNT = 1;
     private static final Integer REPLICA_COUNT = 1;
+    private static final String TOPIC_PARTITIONS_PROPERTY = "spring.kafka.partitions.";
+    private static final String TOPIC_WIRE_FORMAT_PROPERTY = "spring.kafka.wire-format.topics.";
+
+    private final Environment environment;
+    private final EventCodec eventCodec;
+    private final JsonUtil jsonUtil;
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String boostrapServers;
@@ -35,6 +49,27 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.auto-offset-reset}")
     private String autoOffsetReset;
 
+    @Value("${spring.kafka.partitions.default:1}")
+    private Integer defaultPartitionCount;
+
+    @Value("${spring.kafka.listener.concurrency:1}")
+    private Integer listenerConcurrency;
+
+    @Value("${spring.kafka.listener.observation-enabled:true}")
+    private boolean listenerObservationEnabled;
+
+    @Value("${spring.kafka.template.observation-enabled:true}")
+    private boolean templateObservationEnabled;
+
+    @Value("${spring.kafka.producer.delivery-timeout-ms:120000}")
+    private Integer deliveryTimeoutMillis;
+
+    @Value("${spring.kafka.wire-format.default:binary}")
+    private String defaultWireFormat;
+
+    @Value("${spring.kafka.consumer.isolation-level:read_committed}")
+    private String isolationLevel;
+
     @Value("${spring.kafka.topic.start-saga}")
     private String startSagaTopic;
 
@@ -49,48 +84,107 @@ public class KafkaConfig {
     }
 
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
-        return new DefaultKafkaConsumerFactory<>(consumerProps());
+    public ConsumerFactory<String, Event> consumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(
+                consumerProps(),
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new EventDeserializer(eventCodec, jsonUtil))
+        );
+    }
+
+    /**
+     * Completion waiters are local to the instance, so each instance reads every partition of
+     * notify-ending. The partitions are assigned rather than subscribed: there is no consumer group,
+     * nothing is committed and a restart starts again from the end of the topic.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Event> completionKafkaListenerContainerFactory() {
+        var props = consumerProps();
+        props.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, Event>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new EventDeserializer(eventCodec, jsonUtil))
+        ));
+        // Records are never acknowledged, so the container does not try to commit without a group.
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setObservationEnabled(listenerObservationEnabled);
+        return factory;
+    }
+
+    // Every partition of notify-ending, as created by this service, for the completion listener.
+    public String[] notifyEndingPartitions() {
+        return IntStream.range(0, partitionCount(notifyEndingTopic))
+                .mapToObj(String::valueOf)
+                .toArray(String[]::new);
     }
 
     private Map<String, Object> consumerProps() {
         var props = new HashMap<String, Object>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, boostrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, isolationLevel);
 
         return props;
     }
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
-        return new DefaultKafkaProducerFactory<>(producerProps());
+    public ConcurrentKafkaListenerContainerFactory<String, Event> kafkaListenerContainerFactory() {
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, Event>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(listenerConcurrency);
+        factory.getContainerProperties().setObservationEnabled(listenerObservationEnabled);
+        return factory;
+    }
+
+    @Bean
+    public ProducerFactory<String, Event> producerFactory() {
+        return new DefaultKafkaProducerFactory<>(
+                producerProps(),
+                new StringSerializer(),
+                new EventSerializer(eventCodec, jsonUtil, this::wireFormat)
+        );
     }
 
     private Map<String, Object> producerProps() {
         var props = new HashMap<String, Object>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, boostrapServers);
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMillis);
 
         return props;
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, Event> kafkaTemplate() {
+        var template = new KafkaTemplate<>(producerFactory());
+        template.setObservationEnabled(templateObservationEnabled);
+        return template;
     }
 
     private NewTopic buildTopic(String name) {
         return TopicBuilder
                 .name(name)
                 .replicas(REPLICA_COUNT)
-                .partitions(PARTITION_COUNT)
+                .partitions(partitionCount(name))
                 .build();
     }
 
+    private Integer partitionCount(String topic) {
+        return environment.getProperty(TOPIC_PARTITIONS_PROPERTY + topic, Integer.class, defaultPartitionCount);
+    }
+
+    private EWireFormat wireFormat(String topic) {
+        var format = environment.getProperty(TOPIC_WIRE_FORMAT_PROPERTY + topic, defaultWireFormat);
+        return EWireFormat.valueOf(format.trim().toUpperCase());
+    }
+
     @Bean
     public NewTopic startSagaTopic() {
         return buildTopic(startSagaTopic);
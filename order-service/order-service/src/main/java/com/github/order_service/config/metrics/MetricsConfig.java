@@ -0,0 +1,48 @@
+package com.github.order_service.config.metrics;
+
+import com.github.order_service.core.producer.OutboxRelay;
+import com.github.order_service.core.producer.SagaProducer;
+import com.github.order_service.core.service.SagaCompletionRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes the counters the producer already keeps. Listener, template and repository timers
+ * ({@code spring.kafka.listener}, {@code spring.kafka.template},
+ * {@code spring.data.repository.invocations}) are recorded by Spring itself once a registry is present.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder sagaProducerMetrics(SagaProducer producer) {
+        return registry -> {
+            Gauge.builder("saga.producer.in.flight", producer, SagaProducer::getInFlightEvents)
+                    .description("Events sent and not acknowledged yet")
+                    .register(registry);
+            FunctionCounter.builder("saga.producer.sent", producer, SagaProducer::getSentEvents)
+                    .description("Events acknowledged by the broker")
+                    .register(registry);
+            FunctionCounter.builder("saga.producer.failed", producer, SagaProducer::getFailedEvents)
+                    .description("Events that could not be sent")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder outboxRelayMetrics(OutboxRelay relay) {
+        return registry -> FunctionCounter.builder("saga.outbox.relayed", relay, OutboxRelay::getRelayedEvents)
+                .description("Outbox events published and cleared")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder sagaCompletionMetrics(SagaCompletionRegistry completionRegistry) {
+        return registry -> Gauge.builder("saga.completion.waiters", completionRegistry, SagaCompletionRegistry::getPendingWaiters)
+                .description("Requests waiting for the end of a saga")
+                .register(registry);
+    }
+}
@@ -1,27 +1,40 @@
 package com.github.order_service.core.consumer;
 
+import com.github.order_service.core.document.Event;
 import com.github.order_service.core.service.EventService;
-import com.github.order_service.core.utils.JsonUtil;
+import com.github.order_service.core.service.SagaCompletionRegistry;
+import com.github.order_service.core.utils.SagaLog;
 import lombok.AllArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
 import org.springframework.stereotype.Component;
 
-@Slf4j
 @Component
 @AllArgsConstructor
 public class EventConsumer {
 
-    private final JsonUtil jsonUtil;
     private final EventService eventService;
+    private final SagaCompletionRegistry completionRegistry;
+    private final SagaLog sagaLog;
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.notify-ending}"
     )
-    public void consumeNotifyEndingEvent(String payload) {
-        log.info("Receiving ending notification event {} from notify-ending topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumeNotifyEndingEvent(Event event) {
+        sagaLog.received("notify-ending", event);
         eventService.notifyEnd(event);
     }
+
+    // Waiters are local to the instance, so each instance reads every ending from assigned partitions.
+    @KafkaListener(
+            containerFactory = "completionKafkaListenerContainerFactory",
+            topicPartitions = @TopicPartition(
+                    topic = "${spring.kafka.topic.notify-ending}",
+                    partitions = "#{@kafkaConfig.notifyEndingPartitions()}"
+            )
+    )
+    public void completeWaiters(Event event) {
+        completionRegistry.complete(event);
+    }
 }
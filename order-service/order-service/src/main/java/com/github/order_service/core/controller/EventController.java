@@ -3,20 +3,33 @@ package com.github.order_service.core.controller;
 import com.github.order_service.core.document.Event;
 import com.github.order_service.core.dto.EventFilter;
 import com.github.order_service.core.service.EventService;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
 
-@AllArgsConstructor
+@RequiredArgsConstructor
 @RestController
 @RequestMapping("/api/event")
 public class EventController {
 
     private final EventService eventService;
 
+    @Value("${saga.completion.timeout-ms:30000}")
+    private long defaultTimeoutMillis;
+
+    @Value("${saga.completion.max-timeout-ms:120000}")
+    private long maxTimeoutMillis;
+
     @GetMapping
     public Event findByFilters(EventFilter eventFilter) {
         return eventService.findByFilters(eventFilter);
@@ -26,4 +39,51 @@ public class EventController {
     public List<Event> findAll() {
         return eventService.findAll();
     }
+
+    /**
+     * Long poll: answers with the final event once the saga ended, or {@code 202 Accepted} without a
+     * body when it is still running after the timeout.
+     */
+    @GetMapping("wait")
+    public DeferredResult<ResponseEntity<Event>> waitForEnd(@RequestParam(required = false) String transactionId,
+                                                            @RequestParam(required = false) Long timeoutMs) {
+        var result = new DeferredResult<ResponseEntity<Event>>(timeout(timeoutMs), () -> ResponseEntity.accepted().build());
+        var waiter = eventService.awaitEnd(transactionId, event -> result.setResult(ResponseEntity.ok(event)));
+        result.onCompletion(waiter::cancel);
+        return result;
+    }
+
+    /**
+     * Server-Sent Events: sends a single {@code saga-end} event with the final event and closes the
+     * stream, or closes it without one when the timeout is reached first.
+     */
+    @GetMapping(path = "stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEnd(@RequestParam(required = false) String transactionId,
+                                @RequestParam(required = false) Long timeoutMs) {
+        var emitter = new SseEmitter(timeout(timeoutMs));
+        var waiter = eventService.awaitEnd(transactionId, event -> send(emitter, event));
+        emitter.onTimeout(() -> {
+            waiter.cancel();
+            emitter.complete();
+        });
+        emitter.onCompletion(waiter::cancel);
+        emitter.onError(error -> waiter.cancel());
+        return emitter;
+    }
+
+    private long timeout(Long timeoutMs) {
+        return timeoutMs == null || timeoutMs <= 0 ? defaultTimeoutMillis : Math.min(timeoutMs, maxTimeoutMillis);
+    }
+
+    private static void send(SseEmitter emitter, Event event) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("saga-end")
+                    .id(event.getTransactionId())
+                    .data(event, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+    }
 }
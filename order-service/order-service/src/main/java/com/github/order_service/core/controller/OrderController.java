@@ -1,6 +1,7 @@
 package com.github.order_service.core.controller;
 
 import com.github.order_service.core.document.Order;
+import com.github.order_service.core.dto.OrderBatchItem;
 import com.github.order_service.core.dto.OrderRequest;
 import com.github.order_service.core.service.OrderService;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @AllArgsConstructor
 @RequestMapping("api/order")
@@ -22,4 +25,11 @@ public class OrderController {
             ) {
         return orderService.createOrder(orderRequest);
     }
+
+    @PostMapping("batch")
+    public List<OrderBatchItem> createOrders(
+            @RequestBody List<OrderRequest> orderRequests
+            ) {
+        return orderService.createOrders(orderRequests);
+    }
 }
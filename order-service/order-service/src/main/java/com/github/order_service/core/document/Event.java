@@ -1,12 +1,15 @@
 package com.github.order_service.core.document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -28,4 +31,18 @@ public class Event {
     private List<History> eventHistory;
     private LocalDateTime createdAt;
 
+    // Set until the outbox relay has published the event; only present on those, hence the sparse index.
+    @JsonIgnore
+    @Indexed(sparse = true)
+    private Boolean outboxPending;
+
+    // Round of the outbox relay that holds the event, and until when, so that instances running the
+    // relay concurrently do not publish the same events. Unset with the pending flag.
+    @JsonIgnore
+    @Indexed(sparse = true)
+    private String outboxClaim;
+
+    @JsonIgnore
+    private Instant outboxLeaseUntil;
+
 }
@@ -0,0 +1,24 @@
+package com.github.order_service.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one order of a batch, at the same {@code index} as in the request. Ids are only set
+ * when the order was stored, {@code error} only when it was not.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchItem {
+
+    private int index;
+    private String orderId;
+    private String transactionId;
+    private String error;
+
+    public static OrderBatchItem failed(int index, String error) {
+        return new OrderBatchItem(index, null, null, error);
+    }
+}
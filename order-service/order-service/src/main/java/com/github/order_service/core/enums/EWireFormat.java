@@ -0,0 +1,6 @@
+package com.github.order_service.core.enums;
+
+public enum EWireFormat {
+    JSON,
+    BINARY
+}
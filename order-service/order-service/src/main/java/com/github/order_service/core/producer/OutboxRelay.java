@@ -0,0 +1,131 @@
+package com.github.order_service.core.producer;
+
+import com.github.order_service.core.document.Event;
+import com.github.order_service.core.repository.EventRepository;
+import com.github.order_service.core.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes the start-saga events written by {@code OrderService.createOrder}. Each round reads the
+ * pending events in batches and claims them for {@code saga.outbox.lease-ms}, so instances running
+ * the relay side by side publish disjoint batches. It then inserts their orders in one bulk write
+ * (orders a previous round stored are skipped), sends the whole batch and only then clears the flag
+ * of the acknowledged ones. Events whose send failed are claimed again once their lease expires.
+ *
+ * <p>An event is published at least once: a crash between the send and the clear, or a send outliving
+ * its lease, publishes it again. The orchestrator drops start-saga events of sagas it already knows.
+ * Polling is used because change streams need a replica set.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private final EventRepository eventRepository;
+    private final OrderRepository orderRepository;
+    private final SagaProducer producer;
+
+    @Value("${saga.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${saga.outbox.poll-interval-ms:50}")
+    private long pollIntervalMillis;
+
+    // Longer than a send can take (window and delivery timeouts), a batch still in flight stays claimed.
+    @Value("${saga.outbox.lease-ms:180000}")
+    private long leaseMillis;
+
+    private final LongAdder relayedEvents = new LongAdder();
+    private ScheduledExecutorService poller;
+
+    @PostConstruct
+    void start() {
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::relay, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        poller.shutdownNow();
+    }
+
+    public long getRelayedEvents() {
+        return relayedEvents.sum();
+    }
+
+    // Keeps going while batches come back full and fully published, then waits for the next poll.
+    private void relay() {
+        try {
+            var backlog = true;
+            while (backlog) {
+                backlog = relayBatch();
+            }
+        } catch (Exception e) {
+            log.error("Failed to relay outbox events: {}", e.getMessage());
+        }
+    }
+
+    private boolean relayBatch() {
+        var now = Instant.now();
+        var candidates = eventRepository.findByOutboxPendingTrueAndOutboxLeaseUntilBeforeOrderByCreatedAtAsc(
+                now, Limit.of(batchSize));
+        if (candidates.isEmpty()) {
+            return false;
+        }
+        var events = claim(candidates, now);
+        if (events.isEmpty()) {
+            return candidates.size() == batchSize;
+        }
+        orderRepository.insertIgnoringDuplicates(events.stream().map(Event::getPayload).toList());
+        var sends = events.stream()
+                .map(event -> producer.sendEvent(event.getTransactionId(), event))
+                .toList();
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+        var published = published(events, sends);
+        if (!published.isEmpty()) {
+            eventRepository.findAndClearOutboxPendingByIdIn(published);
+            relayedEvents.add(published.size());
+        }
+        return candidates.size() == batchSize && published.size() == events.size();
+    }
+
+    // Reads back what this round claimed, the events another instance claimed first are left out.
+    private List<Event> claim(List<Event> candidates, Instant now) {
+        var claim = UUID.randomUUID().toString();
+        var ids = candidates.stream().map(Event::getId).toList();
+        if (eventRepository.findAndClaimOutboxByIdInAndOutboxLeaseUntilBefore(ids, now, claim, now.plusMillis(leaseMillis)) == 0) {
+            return List.of();
+        }
+        return eventRepository.findByOutboxClaimOrderByCreatedAtAsc(claim);
+    }
+
+    private static List<String> published(List<Event> events, List<CompletableFuture<Boolean>> sends) {
+        var published = new ArrayList<String>(events.size());
+        for (var index = 0; index < events.size(); index++) {
+            if (sends.get(index).join()) {
+                published.add(events.get(index).getId());
+            }
+        }
+        return published;
+    }
+}
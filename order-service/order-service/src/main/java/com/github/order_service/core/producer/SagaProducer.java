@@ -1,28 +1,101 @@
 package com.github.order_service.core.producer;
 
+import com.github.order_service.core.document.Event;
+import com.github.order_service.core.utils.SagaLog;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class SagaProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, Event> kafkaTemplate;
+    private final SagaLog sagaLog;
 
     @Value("${spring.kafka.topic.start-saga}")
     private String startSagaTopic;
 
-    public void sendEvent(String payload) {
-        try{
-            log.info("Sending event to Kafka topic {}: {}", startSagaTopic, payload);
-            kafkaTemplate.send(startSagaTopic, payload);
+    @Value("${spring.kafka.producer.max-in-flight:1000}")
+    private int maxInFlight;
+
+    @Value("${spring.kafka.producer.window-timeout-ms:30000}")
+    private long windowTimeoutMillis;
+
+    private final LongAdder sentEvents = new LongAdder();
+    private final LongAdder failedEvents = new LongAdder();
+    private Semaphore inFlight;
+
+    @PostConstruct
+    void init() {
+        inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Completes with {@code true} once the broker acknowledged the event, or {@code false} once the
+     * producer gave up on it.
+     */
+    public CompletableFuture<Boolean> sendEvent(String key, Event event) {
+        sagaLog.sending(startSagaTopic, event);
+        acquirePermit();
+        var result = new CompletableFuture<Boolean>();
+        send(key, event, result);
+        return result;
+    }
+
+    public int getInFlightEvents() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    public long getSentEvents() {
+        return sentEvents.sum();
+    }
+
+    public long getFailedEvents() {
+        return failedEvents.sum();
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!inFlight.tryAcquire(windowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Producer window to topic " + startSagaTopic + " is full.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for producer window to topic " + startSagaTopic, e);
+        }
+    }
+
+    private void send(String key, Event event, CompletableFuture<Boolean> result) {
+        try {
+            kafkaTemplate
+                    .send(startSagaTopic, key, event)
+                    .whenComplete((sendResult, error) -> onCompletion(key, error, result));
         } catch (Exception e) {
-            log.error("Failed to send event to Kafka topic {}: {}", startSagaTopic, e.getMessage());
+            onCompletion(key, e, result);
         }
     }
 
+    // The idempotent producer retries on its own until delivery-timeout-ms. A send that fails after
+    // that may still have reached the broker, so it is reported as failed rather than sent again.
+    // The outbox relay keeps the event pending and publishes it again on a later round.
+    private void onCompletion(String key, Throwable error, CompletableFuture<Boolean> result) {
+        if (error == null) {
+            sentEvents.increment();
+        } else {
+            failedEvents.increment();
+            log.error("Failed to send event to Kafka topic {} for key {}: {}", startSagaTopic, key, error.getMessage());
+        }
+        inFlight.release();
+        result.complete(error == null);
+    }
 }
@@ -0,0 +1,15 @@
+package com.github.order_service.core.repository;
+
+import com.github.order_service.core.document.Event;
+
+import java.util.List;
+import java.util.Map;
+
+public interface EventBulkRepository {
+
+    /**
+     * Inserts the events in one unordered bulk write, so a failing event does not stop the others.
+     * Returns the error of each failed event by its position in {@code events}.
+     */
+    Map<Integer, String> insertUnordered(List<Event> events);
+}
@@ -0,0 +1,35 @@
+package com.github.order_service.core.repository;
+
+import com.github.order_service.core.document.Event;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class EventBulkRepositoryImpl implements EventBulkRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Event> events) {
+        if (events.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            mongoTemplate
+                    .bulkOps(BulkOperations.BulkMode.UNORDERED, Event.class)
+                    .insert(events)
+                    .execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            var failures = new HashMap<Integer, String>();
+            e.getErrors().forEach(error -> failures.put(error.getIndex(), error.getMessage()));
+            return failures;
+        }
+    }
+}
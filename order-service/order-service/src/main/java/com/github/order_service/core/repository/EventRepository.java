@@ -1,17 +1,33 @@
 package com.github.order_service.core.repository;
 
 import com.github.order_service.core.document.Event;
-import com.github.order_service.core.document.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Update;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface EventRepository extends MongoRepository<Event, String> {
+public interface EventRepository extends MongoRepository<Event, String>, EventBulkRepository {
 
     List<Event> findAllByOrderByCreatedAtDesc();
 
     Optional<Event> findTop1ByOrderIdOrderByCreatedAtDesc(String orderID);
 
     Optional<Event> findTop1ByTransactionIdOrderByCreatedAtDesc(String transactionID);
+
+    List<Event> findByOutboxPendingTrueAndOutboxLeaseUntilBeforeOrderByCreatedAtAsc(Instant now, Limit limit);
+
+    // Only claims events whose lease expired, another relay round may have taken some since the read.
+    @Update("{ '$set' : { 'outboxClaim' : ?2, 'outboxLeaseUntil' : ?3 } }")
+    long findAndClaimOutboxByIdInAndOutboxLeaseUntilBefore(Collection<String> ids, Instant now, String claim,
+                                                           Instant leaseUntil);
+
+    List<Event> findByOutboxClaimOrderByCreatedAtAsc(String claim);
+
+    // Only touches the outbox fields, so a saga ending meanwhile keeps the status it saved.
+    @Update("{ '$unset' : { 'outboxPending' : 1, 'outboxClaim' : 1, 'outboxLeaseUntil' : 1 } }")
+    long findAndClearOutboxPendingByIdIn(Collection<String> ids);
 }
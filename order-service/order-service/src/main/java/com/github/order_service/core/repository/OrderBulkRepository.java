@@ -0,0 +1,14 @@
+package com.github.order_service.core.repository;
+
+import com.github.order_service.core.document.Order;
+
+import java.util.List;
+
+public interface OrderBulkRepository {
+
+    /**
+     * Inserts the orders in one unordered bulk write. Orders an earlier attempt already stored are
+     * left as they are; any other failure is thrown.
+     */
+    void insertIgnoringDuplicates(List<Order> orders);
+}
@@ -0,0 +1,35 @@
+package com.github.order_service.core.repository;
+
+import com.github.order_service.core.document.Order;
+import com.mongodb.ErrorCategory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class OrderBulkRepositoryImpl implements OrderBulkRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void insertIgnoringDuplicates(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        try {
+            mongoTemplate
+                    .bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class)
+                    .insert(orders)
+                    .execute();
+        } catch (BulkOperationException e) {
+            var duplicatesOnly = e.getErrors().stream()
+                    .allMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY);
+            if (!duplicatesOnly || e.getWriteConcernError() != null) {
+                throw e;
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.github.order_service.config.exception.ValidationException;
 import com.github.order_service.core.document.Event;
 import com.github.order_service.core.dto.EventFilter;
 import com.github.order_service.core.repository.EventRepository;
+import io.micrometer.observation.annotation.Observed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
@@ -12,25 +13,70 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.util.ObjectUtils;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
+@Observed(name = "saga.service")
 @AllArgsConstructor
 public class EventService {
 
     private final EventRepository repository;
+    private final SagaCompletionRegistry completionRegistry;
 
     public Event save(Event event) {
         return repository.save(event);
     }
 
+    /**
+     * Inserts the events in a single bulk write; see {@link EventRepository#insertUnordered(List)}.
+     */
+    public Map<Integer, String> saveAll(List<Event> events) {
+        return repository.insertUnordered(events);
+    }
+
     public void notifyEnd(Event event) {
+        keepStoredPayload(event);
         event.setOrderId(event.getOrderId());
         event.setCreatedAt(event.getCreatedAt());
         save(event);
         log.info("Order {} with SAGA notified! TrasactionId: {}", event.getOrderId(), event.getTransactionId());
     }
 
+    // The orchestrator only keeps ids for the sagas it waits on, so a saga ended by a timeout is
+    // notified without its products; the order and creation time stored at the start are kept.
+    private void keepStoredPayload(Event event) {
+        if (event.getPayload() != null && !CollectionUtils.isEmpty(event.getPayload().getProducts())) {
+            return;
+        }
+        repository.findById(event.getId()).ifPresent(stored -> {
+            event.setPayload(stored.getPayload());
+            event.setCreatedAt(stored.getCreatedAt());
+        });
+    }
+
+    /**
+     * Calls {@code onEnd} once the saga of the transaction ended, right away if it already has. The
+     * waiter is registered before the event is read, so an end in between is not missed.
+     */
+    public SagaCompletionRegistry.Waiter awaitEnd(String transactionId, Consumer<Event> onEnd) {
+        if (ObjectUtils.isEmpty(transactionId)) {
+            throw new ValidationException("TransactionID must be informed.");
+        }
+        var waiter = completionRegistry.register(transactionId, onEnd);
+        try {
+            var event = findByTransactionId(transactionId);
+            if (!ObjectUtils.isEmpty(event.getStatus())) {
+                waiter.deliver(event);
+            }
+        } catch (RuntimeException e) {
+            waiter.cancel();
+            throw e;
+        }
+        return waiter;
+    }
+
     public List<Event> findAll() {
         return repository.findAllByOrderByCreatedAtDesc();
     }
@@ -1,54 +1,103 @@
 package com.github.order_service.core.service;
 
+import com.github.order_service.config.exception.ValidationException;
 import com.github.order_service.core.document.Event;
 import com.github.order_service.core.document.Order;
+import com.github.order_service.core.dto.OrderBatchItem;
 import com.github.order_service.core.dto.OrderRequest;
-import com.github.order_service.core.producer.SagaProducer;
-import com.github.order_service.core.repository.EventRepository;
-import com.github.order_service.core.repository.OrderRepository;
-import com.github.order_service.core.utils.JsonUtil;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class OrderService {
 
     private static final String TRANSACTION_ID_PATTERN = "%s_%s";
 
-    private final OrderRepository repository;
-    private final SagaProducer producer;
-    private final JsonUtil jsonUtil;
     private final EventService eventService;
 
+    @Value("${saga.order.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    /**
+     * Stores the order inside its start-saga event, a single document write, and returns.
+     * {@link com.github.order_service.core.producer.OutboxRelay} then stores the order document and
+     * publishes the event, so neither is lost when Kafka is slow or down.
+     */
     public Order createOrder(OrderRequest orderRequest) {
-        var order = Order
+        var order = buildOrder(orderRequest);
+        createPayload(order);
+        return order;
+    }
+
+    /**
+     * Stores the events of all valid orders in one bulk write; the outbox relay publishes them in
+     * batches like single orders. Invalid orders and failed writes are reported per item.
+     */
+    public List<OrderBatchItem> createOrders(List<OrderRequest> orderRequests) {
+        if (CollectionUtils.isEmpty(orderRequests) || orderRequests.size() > maxBatchSize) {
+            throw new ValidationException("A batch must have between 1 and " + maxBatchSize + " orders.");
+        }
+        var items = new ArrayList<OrderBatchItem>(orderRequests.size());
+        var events = new ArrayList<Event>(orderRequests.size());
+        var positions = new ArrayList<Integer>(orderRequests.size());
+        for (var index = 0; index < orderRequests.size(); index++) {
+            var orderRequest = orderRequests.get(index);
+            if (orderRequest == null || CollectionUtils.isEmpty(orderRequest.getProducts())) {
+                items.add(OrderBatchItem.failed(index, "Products must be informed."));
+                continue;
+            }
+            var order = buildOrder(orderRequest);
+            var event = buildPayload(order);
+            // Set here because the bulk write does not assign ids back to the documents.
+            event.setId(ObjectId.get().toHexString());
+            items.add(new OrderBatchItem(index, order.getId(), order.getTransactionId(), null));
+            events.add(event);
+            positions.add(index);
+        }
+        eventService.saveAll(events).forEach((position, error) -> {
+            var index = positions.get(position);
+            items.set(index, OrderBatchItem.failed(index, error));
+        });
+        return items;
+    }
+
+    public Event createPayload(Order order) {
+        var event = buildPayload(order);
+        eventService.save(event);
+        return event;
+    }
+
+    private Order buildOrder(OrderRequest orderRequest) {
+        return Order
                 .builder()
+                .id(ObjectId.get().toHexString())
                 .products(orderRequest.getProducts())
                 .createdAt(LocalDateTime.now())
                 .transactionId(
                         String.format(TRANSACTION_ID_PATTERN, Instant.now().toEpochMilli(), UUID.randomUUID())
                 )
                 .build();
-        repository.save(order);
-        producer.sendEvent(jsonUtil.toJson(createPayload(order)));
-        return order;
     }
 
-    public Event createPayload(Order order) {
-        var event = Event
+    private Event buildPayload(Order order) {
+        return Event
                 .builder()
                 .orderId(order.getId())
                 .transactionId(order.getTransactionId())
                 .payload(order)
                 .createdAt(LocalDateTime.now())
+                .outboxPending(true)
+                .outboxLeaseUntil(Instant.EPOCH)
                 .build();
-
-        eventService.save(event);
-        return event;
     }
 }
@@ -0,0 +1,112 @@
+package com.github.order_service.core.service;
+
+import com.github.order_service.core.document.Event;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Callbacks waiting for the end of a saga, keyed by transaction id. A waiter is a callback on an
+ * asynchronous request rather than a blocked thread, so an entry costs a few objects. Each waiter
+ * ends exactly once: delivered, by the notify-ending event or directly when the saga had already
+ * ended, or cancelled on timeout or a closed connection.
+ *
+ * <p>Every instance gets every notify-ending event, from partitions assigned without a group, since
+ * the waiters are local to the instance. The last {@code saga.completion.recent-capacity} endings are
+ * kept as well: the instance storing the end of a saga may not have written it yet when a waiter
+ * registers here after the event went by.
+ */
+@Slf4j
+@Component
+public class SagaCompletionRegistry {
+
+    private final Map<String, List<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Map<String, Event> recent;
+
+    public SagaCompletionRegistry(@Value("${saga.completion.recent-capacity:10000}") int recentCapacity) {
+        recent = Collections.synchronizedMap(new LinkedHashMap<String, Event>() {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Event> eldest) {
+                return size() > recentCapacity;
+            }
+        });
+    }
+
+    public final class Waiter {
+
+        private final String transactionId;
+        private final Consumer<Event> callback;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Waiter(String transactionId, Consumer<Event> callback) {
+            this.transactionId = transactionId;
+            this.callback = callback;
+        }
+
+        public void deliver(Event event) {
+            if (!finish()) {
+                return;
+            }
+            try {
+                callback.accept(event);
+            } catch (Exception e) {
+                log.warn("Failed to notify waiter of transaction {}: {}", transactionId, e.getMessage());
+            }
+        }
+
+        public void cancel() {
+            finish();
+        }
+
+        private boolean finish() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            pending.decrementAndGet();
+            waiters.computeIfPresent(transactionId, (id, list) -> {
+                list.remove(this);
+                return list.isEmpty() ? null : list;
+            });
+            return true;
+        }
+    }
+
+    public Waiter register(String transactionId, Consumer<Event> callback) {
+        var waiter = new Waiter(transactionId, callback);
+        pending.incrementAndGet();
+        waiters.compute(transactionId, (id, list) -> {
+            var registered = list == null ? new ArrayList<Waiter>(1) : list;
+            registered.add(waiter);
+            return registered;
+        });
+        var ended = recent.get(transactionId);
+        if (ended != null) {
+            waiter.deliver(ended);
+        }
+        return waiter;
+    }
+
+    public void complete(Event event) {
+        recent.put(event.getTransactionId(), event);
+        var completed = waiters.remove(event.getTransactionId());
+        if (completed != null) {
+            completed.forEach(waiter -> waiter.deliver(event));
+        }
+    }
+
+    public int getPendingWaiters() {
+        return pending.get();
+    }
+}
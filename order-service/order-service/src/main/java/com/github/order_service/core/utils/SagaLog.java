@@ -0,0 +1,92 @@
+package com.github.order_service.core.utils;
+
+import com.github.order_service.core.document.Event;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Logs the events crossing Kafka under the {@code saga} logger. Sampled transactions get a summary
+ * line (ids, source, status, sizes) at INFO, followed by the JSON payload when
+ * {@code saga.logging.payload} is on; the others only get the summary at DEBUG. Sampling hashes the
+ * transaction id, so a sampled saga is logged by every service it goes through.
+ *
+ * <p>Summaries and payloads are rendered only when the line is written, the async appender formats
+ * them on the calling thread before the event can change.
+ */
+@Slf4j(topic = "saga")
+@Component
+@RequiredArgsConstructor
+public class SagaLog {
+
+    private static final int SAMPLE_BUCKETS = 10_000;
+
+    private static final String RECEIVING = "Receiving event from {} topic | {}";
+    private static final String RECEIVING_PAYLOAD = RECEIVING + " | payload {}";
+    private static final String SENDING = "Sending event to Kafka topic {} | {}";
+    private static final String SENDING_PAYLOAD = SENDING + " | payload {}";
+
+    private final JsonUtil jsonUtil;
+
+    @Value("${saga.logging.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${saga.logging.payload:false}")
+    private boolean payloadEnabled;
+
+    public void received(String topic, Event event) {
+        log(RECEIVING, RECEIVING_PAYLOAD, topic, event);
+    }
+
+    public void sending(String topic, Event event) {
+        log(SENDING, SENDING_PAYLOAD, topic, event);
+    }
+
+    public boolean isSampled(String transactionId) {
+        if (sampleRate >= 1) {
+            return true;
+        }
+        if (transactionId == null || sampleRate <= 0) {
+            return false;
+        }
+        return Math.floorMod(transactionId.hashCode(), SAMPLE_BUCKETS) < sampleRate * SAMPLE_BUCKETS;
+    }
+
+    private void log(String message, String payloadMessage, String topic, Event event) {
+        if (log.isInfoEnabled() && isSampled(event.getTransactionId())) {
+            if (payloadEnabled) {
+                log.info(payloadMessage, topic, summary(event), lazy(() -> jsonUtil.toJson(event)));
+            } else {
+                log.info(message, topic, summary(event));
+            }
+        } else if (log.isDebugEnabled()) {
+            log.debug(message, topic, summary(event));
+        }
+    }
+
+    private static Object summary(Event event) {
+        return lazy(() -> "transactionId=" + event.getTransactionId()
+                + " orderId=" + event.getOrderId()
+                + " source=" + event.getSource()
+                + " status=" + event.getStatus()
+                + " history=" + size(event.getEventHistory())
+                + " products=" + (event.getPayload() == null ? 0 : size(event.getPayload().getProducts())));
+    }
+
+    private static int size(List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+
+    private static Object lazy(Supplier<String> renderer) {
+        return new Object() {
+            @Override
+            public String toString() {
+                return renderer.get();
+            }
+        };
+    }
+}
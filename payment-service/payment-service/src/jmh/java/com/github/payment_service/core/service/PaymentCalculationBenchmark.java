@@ -0,0 +1,62 @@
+package com.github.payment_service.core.service;
+
+import com.github.payment_service.core.dto.Event;
+import com.github.payment_service.core.dto.Order;
+import com.github.payment_service.core.dto.OrderProducts;
+import com.github.payment_service.core.dto.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order amount and item count calculations of the payment step, for small and large orders.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentCalculationBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int products;
+
+    private PaymentService paymentService;
+    private Event event;
+
+    @Setup
+    public void setUp() {
+        // The calculations only read the event, the collaborators are never used.
+        paymentService = new PaymentService(null, null, null, null);
+        var items = new ArrayList<OrderProducts>(products);
+        for (var index = 0; index < products; index++) {
+            items.add(new OrderProducts(new Product("PRODUCT_" + index, 10.5 + index), index % 5 + 1));
+        }
+        var order = new Order();
+        order.setProducts(items);
+        event = new Event();
+        event.setPayload(order);
+    }
+
+    @Benchmark
+    public double calculateAmount() {
+        return paymentService.calculateAmount(event);
+    }
+
+    @Benchmark
+    public int calculateItems() {
+        return paymentService.calculateItems(event);
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.payment_service.config.kafka;
+
+import com.github.payment_service.core.dto.EventEnvelope;
+import com.github.payment_service.core.utils.EventCodec;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.List;
+
+/**
+ * Reads envelopes, and single events in either wire format as envelopes of one, so a topic keeps
+ * working while its producers switch to envelopes.
+ */
+@RequiredArgsConstructor
+public class EventEnvelopeDeserializer implements Deserializer<EventEnvelope> {
+
+    private final EventCodec codec;
+    private final EventDeserializer eventDeserializer;
+
+    @Override
+    public EventEnvelope deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (!codec.isEnvelope(data)) {
+            return new EventEnvelope(List.of(eventDeserializer.deserialize(topic, data)));
+        }
+        try {
+            return codec.decodeEnvelope(data);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Failed to deserialize event envelope from topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.payment_service.config.kafka;
+
+import com.github.payment_service.core.dto.EventEnvelope;
+import com.github.payment_service.core.utils.EventCodec;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.serialization.Serializer;
+
+@RequiredArgsConstructor
+public class EventEnvelopeSerializer implements Serializer<EventEnvelope> {
+
+    private final EventCodec codec;
+
+    @Override
+    public byte[] serialize(String topic, EventEnvelope envelope) {
+        return envelope == null ? null : codec.encodeEnvelope(envelope);
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.payment_service.config.kafka;
+
+import com.github.payment_service.core.dto.Event;
+import com.github.payment_service.core.enums.EWireFormat;
+import com.github.payment_service.core.utils.EventCodec;
+import com.github.payment_service.core.utils.JsonUtil;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Writes events in the wire format configured for the destination topic, so a topic can be kept
+ * in JSON for inspection while the others use the binary codec.
+ */
+@RequiredArgsConstructor
+public class EventSerializer implements Serializer<Event> {
+
+    private final EventCodec codec;
+    private final JsonUtil jsonUtil;
+    private final Function<String, EWireFormat> topicFormat;
+    private final Map<String, EWireFormat> formats = new ConcurrentHashMap<>();
+
+    @Override
+    public byte[] serialize(String topic, Event event) {
+        if (event == null) {
+            return null;
+        }
+        return switch (formats.computeIfAbsent(topic, topicFormat)) {
+            case BINARY -> codec.encode(event);
+            case JSON -> jsonUtil.toJsonBytes(event);
+        };
+    }
+}
@@ -1,17 +1,30 @@
 package com.github.payment_service.config.kafka;
 
+import com.github.payment_service.core.consumer.KeyOrderedDispatcher;
+import com.github.payment_service.core.dto.Event;
+import com.github.payment_service.core.dto.EventEnvelope;
+import com.github.payment_service.core.enums.EWireFormat;
+import com.github.payment_service.core.utils.EventCodec;
+import com.github.payment_service.core.utils.JsonUtil;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.listener.ContainerProperties;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -21,8 +34,14 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class KafkaConfig {
 
-    private static final Integer PARTITION_COUNT = 1;
     private static final Integer REPLICA_COUNT = 1;
+    private static final String TOPIC_PARTITIONS_PROPERTY = "spring.kafka.partitions.";
+    private static final String TOPIC_WIRE_FORMAT_PROPERTY = "spring.kafka.wire-format.topics.";
+
+    private final Environment environment;
+    private final EventCodec eventCodec;
+    private final JsonUtil jsonUtil;
+    private final ObjectProvider<KeyOrderedDispatcher> keyOrderedDispatcher;
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String boostrapServers;
@@ -33,6 +52,27 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.auto-offset-reset}")
     private String autoOffsetReset;
 
+    @Value("${spring.kafka.partitions.default:1}")
+    private Integer defaultPartitionCount;
+
+    @Value("${spring.kafka.listener.concurrency:1}")
+    private Integer listenerConcurrency;
+
+    @Value("${spring.kafka.listener.observation-enabled:true}")
+    private boolean listenerObservationEnabled;
+
+    @Value("${spring.kafka.template.observation-enabled:true}")
+    private boolean templateObservationEnabled;
+
+    @Value("${spring.kafka.producer.delivery-timeout-ms:120000}")
+    private Integer deliveryTimeoutMillis;
+
+    @Value("${spring.kafka.wire-format.default:binary}")
+    private String defaultWireFormat;
+
+    @Value("${spring.kafka.consumer.isolation-level:read_committed}")
+    private String isolationLevel;
+
     @Value("${spring.kafka.topic.orchestrator}")
     private String orchestratorTopic;
 
@@ -43,48 +83,119 @@ public class KafkaConfig {
     private String paymentFailTopic;
 
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
-        return new DefaultKafkaConsumerFactory<>(consumerProps());
+    public ConsumerFactory<String, Event> consumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(
+                consumerProps(),
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new EventDeserializer(eventCodec, jsonUtil))
+        );
+    }
+
+    @Bean
+    public ConsumerFactory<String, EventEnvelope> envelopeConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(
+                consumerProps(),
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new EventEnvelopeDeserializer(eventCodec, new EventDeserializer(eventCodec, jsonUtil)))
+        );
     }
 
     private Map<String, Object> consumerProps() {
         var props = new HashMap<String, Object>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, boostrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, isolationLevel);
 
         return props;
     }
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
-        return new DefaultKafkaProducerFactory<>(producerProps());
+    public ConcurrentKafkaListenerContainerFactory<String, Event> kafkaListenerContainerFactory() {
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, Event>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(listenerConcurrency);
+        factory.getContainerProperties().setObservationEnabled(listenerObservationEnabled);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Event> parallelKafkaListenerContainerFactory() {
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, Event>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(listenerConcurrency);
+        factory.getContainerProperties().setObservationEnabled(listenerObservationEnabled);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // The dispatcher remembers records per partition, a rebalance that takes one away clears them.
+        keyOrderedDispatcher.ifAvailable(factory.getContainerProperties()::setConsumerRebalanceListener);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EventEnvelope> envelopeKafkaListenerContainerFactory() {
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, EventEnvelope>();
+        factory.setConsumerFactory(envelopeConsumerFactory());
+        factory.setConcurrency(listenerConcurrency);
+        factory.getContainerProperties().setObservationEnabled(listenerObservationEnabled);
+        return factory;
+    }
+
+    // Events and envelopes share one producer.
+    @Bean
+    public ProducerFactory<String, Object> producerFactory() {
+        var serializer = new DelegatingByTypeSerializer(Map.<Class<?>, Serializer<?>>of(
+                Event.class, new EventSerializer(eventCodec, jsonUtil, this::wireFormat),
+                EventEnvelope.class, new EventEnvelopeSerializer(eventCodec)
+        ));
+        return new DefaultKafkaProducerFactory<>(producerProps(), new StringSerializer(), serializer);
     }
 
     private Map<String, Object> producerProps() {
         var props = new HashMap<String, Object>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, boostrapServers);
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMillis);
 
         return props;
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, Event> kafkaTemplate() {
+        return createTemplate();
+    }
+
+    @Bean
+    public KafkaTemplate<String, EventEnvelope> envelopeKafkaTemplate() {
+        return createTemplate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> KafkaTemplate<String, V> createTemplate() {
+        var template = new KafkaTemplate<>((ProducerFactory<String, V>) (ProducerFactory<String, ?>) producerFactory());
+        template.setObservationEnabled(templateObservationEnabled);
+        return template;
     }
 
     private NewTopic buildTopic(String name) {
         return TopicBuilder
                 .name(name)
                 .replicas(REPLICA_COUNT)
-                .partitions(PARTITION_COUNT)
+                .partitions(partitionCount(name))
                 .build();
     }
 
+    private Integer partitionCount(String topic) {
+        return environment.getProperty(TOPIC_PARTITIONS_PROPERTY + topic, Integer.class, defaultPartitionCount);
+    }
+
+    private EWireFormat wireFormat(String topic) {
+        var format = environment.getProperty(TOPIC_WIRE_FORMAT_PROPERTY + topic, defaultWireFormat);
+        return EWireFormat.valueOf(format.trim().toUpperCase());
+    }
+
     @Bean
     public NewTopic orchestratorTopic() {
         return buildTopic(orchestratorTopic);
@@ -0,0 +1,51 @@
+package com.github.payment_service.config.kafka;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Record level spans for batch listeners, which Spring Kafka observes as a whole. The span continues
+ * the trace of the W3C {@code traceparent} header the producer wrote, so a saga keeps one trace
+ * whatever the consumer mode.
+ */
+@Component
+public class RecordTracing {
+
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    public RecordTracing(ObjectProvider<Tracer> tracer, ObjectProvider<Propagator> propagator) {
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+        this.propagator = propagator.getIfAvailable(() -> Propagator.NOOP);
+    }
+
+    public void process(ConsumerRecord<String, ?> record, Runnable action) {
+        var span = propagator
+                .extract(record.headers(), RecordTracing::header)
+                .name(record.topic() + " process")
+                .kind(Span.Kind.CONSUMER)
+                .tag("messaging.system", "kafka")
+                .tag("messaging.destination.name", record.topic())
+                .start();
+        try (var ignored = tracer.withSpan(span)) {
+            action.run();
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private static String header(Headers headers, String name) {
+        var header = headers.lastHeader(name);
+        return header == null ? null : new String(header.value(), UTF_8);
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.payment_service.config.metrics;
+
+import com.github.payment_service.core.producer.KafkaProducer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes the counters the producer already keeps. Listener, template and repository timers
+ * ({@code spring.kafka.listener}, {@code spring.kafka.template},
+ * {@code spring.data.repository.invocations}) are recorded by Spring itself once a registry is present.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder sagaProducerMetrics(KafkaProducer producer) {
+        return registry -> {
+            Gauge.builder("saga.producer.in.flight", producer, KafkaProducer::getInFlightEvents)
+                    .description("Events sent and not acknowledged yet")
+                    .register(registry);
+            FunctionCounter.builder("saga.producer.sent", producer, KafkaProducer::getSentEvents)
+                    .description("Events acknowledged by the broker")
+                    .register(registry);
+            FunctionCounter.builder("saga.producer.failed", producer, KafkaProducer::getFailedEvents)
+                    .description("Events that could not be sent")
+                    .register(registry);
+        };
+    }
+}
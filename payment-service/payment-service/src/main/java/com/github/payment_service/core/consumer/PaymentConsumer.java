@@ -1,27 +1,27 @@
 package com.github.payment_service.core.consumer;
 
+import com.github.payment_service.core.dto.Event;
 import com.github.payment_service.core.service.PaymentService;
-import com.github.payment_service.core.utils.JsonUtil;
+import com.github.payment_service.core.utils.SagaLog;
 import lombok.AllArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-@Slf4j
 @Component
 @AllArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.consumer.mode", havingValue = "record", matchIfMissing = true)
 public class PaymentConsumer {
 
     private final PaymentService paymentService;
-    private final JsonUtil jsonUtil;
+    private final SagaLog sagaLog;
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.payment-success}"
     )
-    public void consumePaymentSuccessEvent(String payload) {
-        log.info("Receiving success event {} from payment-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumePaymentSuccessEvent(Event event) {
+        sagaLog.received("payment-success", event);
         paymentService.realizePayment(event);
     }
 
@@ -29,9 +29,8 @@ public class PaymentConsumer {
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.payment-fail}"
     )
-    public void consumePaymentFailEvent(String payload) {
-        log.info("Receiving rollback event {} from payment-fail topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumePaymentFailEvent(Event event) {
+        sagaLog.received("payment-fail", event);
         paymentService.realizeRefund(event);
     }
 }
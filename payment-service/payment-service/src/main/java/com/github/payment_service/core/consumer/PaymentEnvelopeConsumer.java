@@ -0,0 +1,38 @@
+package com.github.payment_service.core.consumer;
+
+import com.github.payment_service.core.dto.EventEnvelope;
+import com.github.payment_service.core.service.PaymentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.consumer.mode", havingValue = "envelope")
+public class PaymentEnvelopeConsumer {
+
+    private final PaymentService paymentService;
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.payment-success}",
+            containerFactory = "envelopeKafkaListenerContainerFactory"
+    )
+    public void consumePaymentSuccessEnvelope(EventEnvelope envelope) {
+        log.info("Receiving envelope of {} success events from payment-success topic", envelope.getEvents().size());
+        paymentService.realizePayment(envelope);
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.payment-fail}",
+            containerFactory = "envelopeKafkaListenerContainerFactory"
+    )
+    public void consumePaymentFailEnvelope(EventEnvelope envelope) {
+        log.info("Receiving envelope of {} rollback events from payment-fail topic", envelope.getEvents().size());
+        paymentService.realizeRefund(envelope);
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.payment_service.core.consumer;
+
+import com.github.payment_service.core.dto.Event;
+import com.github.payment_service.core.service.PaymentService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.consumer.mode", havingValue = "parallel")
+public class PaymentParallelConsumer {
+
+    private final PaymentService paymentService;
+    private final KeyOrderedDispatcher dispatcher;
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.payment-success}",
+            containerFactory = "parallelKafkaListenerContainerFactory"
+    )
+    public void consumePaymentSuccessEvents(List<ConsumerRecord<String, Event>> records, Acknowledgment acknowledgment) {
+        log.info("Receiving {} success events from payment-success topic", records.size());
+        dispatcher.dispatch(records, acknowledgment, paymentService::realizePayment);
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.payment-fail}",
+            containerFactory = "parallelKafkaListenerContainerFactory"
+    )
+    public void consumePaymentFailEvents(List<ConsumerRecord<String, Event>> records, Acknowledgment acknowledgment) {
+        log.info("Receiving {} rollback events from payment-fail topic", records.size());
+        dispatcher.dispatch(records, acknowledgment, paymentService::realizeRefund);
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.payment_service.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Time spent turning a Kafka record value into a saga event. Only decodes slower than the
+ * threshold are recorded, it can be lowered with {@code jfr configure} or a custom {@code .jfc}.
+ */
+@Name("saga.Decode")
+@Label("Saga Decode")
+@Category("Saga")
+@Description("Decoding of a saga event read from Kafka")
+@StackTrace(false)
+@Threshold("1 ms")
+public class SagaDecodeEvent extends jdk.jfr.Event {
+
+    @Label("Transaction Id")
+    public String transactionId;
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Format")
+    public String format;
+
+    @Label("Size")
+    @DataAmount
+    public int size;
+}
@@ -0,0 +1,30 @@
+package com.github.payment_service.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Time from handing a saga record to the producer until the broker acknowledged it or the send
+ * failed. The event is committed from the producer I/O thread.
+ */
+@Name("saga.Produce")
+@Label("Saga Produce")
+@Category("Saga")
+@Description("Send of a saga record until its acknowledgement")
+@StackTrace(false)
+@Threshold("20 ms")
+public class SagaProduceEvent extends jdk.jfr.Event {
+
+    @Label("Transaction Id")
+    public String transactionId;
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -2,19 +2,25 @@ package com.github.payment_service.core.service;
 
 import com.github.payment_service.config.exception.ValidationException;
 import com.github.payment_service.core.dto.Event;
+import com.github.payment_service.core.dto.EventEnvelope;
 import com.github.payment_service.core.dto.History;
 import com.github.payment_service.core.dto.OrderProducts;
 import com.github.payment_service.core.enums.EEventSource;
 import com.github.payment_service.core.enums.EPaymentStatus;
+import com.github.payment_service.core.jfr.SagaDbEvent;
 import com.github.payment_service.core.model.Payment;
 import com.github.payment_service.core.producer.KafkaProducer;
 import com.github.payment_service.core.repository.PaymentRepository;
-import com.github.payment_service.core.utils.JsonUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.annotation.Observed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
 
 import static com.github.payment_service.core.enums.EEventSource.PAYMENT_SERVICE;
 import static com.github.payment_service.core.enums.EPaymentStatus.REFUND;
@@ -23,29 +29,47 @@ import static com.github.payment_service.core.enums.ESagaStatus.SUCCESS;
 
 @Slf4j
 @Service
+@Observed(name = "saga.service")
 @AllArgsConstructor
 public class PaymentService {
 
     private static final Double REDUCE_SUM_VALUE = 0.0;
     private static final Double MIN_AMOUNT_VALUE = 0.1;
+    private static final String COMPENSATIONS_METRIC = "saga.compensations";
+    private static final String VALIDATION_ERRORS_METRIC = "saga.validation.errors";
+    private static final String SOURCE_TAG = "source";
 
-    private final JsonUtil jsonUtil;
     private final KafkaProducer producer;
     private final PaymentRepository paymentRepository;
+    private final EventEnvelopeProcessor envelopeProcessor;
+    private final MeterRegistry meterRegistry;
 
     public void realizePayment(Event event) {
-        try {
-            checkCurrentValidation(event);
-            createPendingPayment(event);
-            var payment = findByOrderIdAndTransactionId(event);
-            validateAmount(payment.getTotalAmount());
-            changePaymentToSuccess(payment);
-            handleSuccess(event);
-        } catch (Exception e) {
-            log.error("Error trying to realize payment: ", e);
-            handleFailCurrentNotExecuted(event, e.getMessage());
-        }
-        producer.sendEvent(jsonUtil.toJson(event));
+        processPayment(event);
+        producer.sendEvent(event.getTransactionId(), event);
+    }
+
+    public void realizePayment(EventEnvelope envelope) {
+        producer.sendEnvelope(envelopeProcessor.process(envelope, this::processPayment));
+    }
+
+    private boolean processPayment(Event event) {
+        return recordStep("payment", event, () -> {
+            try {
+                checkCurrentValidation(event);
+                createPendingPayment(event);
+                var payment = findByOrderIdAndTransactionId(event);
+                validateAmount(payment.getTotalAmount());
+                changePaymentToSuccess(payment);
+                handleSuccess(event);
+                return true;
+            } catch (Exception e) {
+                log.error("Error trying to realize payment: ", e);
+                countValidationError(e);
+                handleFailCurrentNotExecuted(event, e.getMessage());
+                return false;
+            }
+        });
     }
 
 
@@ -70,7 +94,8 @@ public class PaymentService {
         setEventAmountItems(event, payment);
     }
 
-    private double calculateAmount(Event event) {
+    // Package-private so the JMH benchmarks can call the calculations directly.
+    double calculateAmount(Event event) {
         return event
                 .getPayload()
                 .getProducts()
@@ -79,7 +104,7 @@ public class PaymentService {
                 .reduce(REDUCE_SUM_VALUE, Double::sum);
     }
 
-    private int calculateItems(Event event) {
+    int calculateItems(Event event) {
         return event
                 .getPayload()
                 .getProducts()
@@ -127,16 +152,69 @@ public class PaymentService {
         addHistory(event, "Fail to realize Payment: ".concat(message));
     }
 
-    public void realizeRefund(Event event) {
-        event.setStatus(FAIL);
-        event.setSource(PAYMENT_SERVICE);
+    private void countValidationError(Exception e) {
+        if (e instanceof ValidationException) {
+            count(VALIDATION_ERRORS_METRIC);
+        }
+    }
+
+    // Inside the transaction of an envelope the meter moves only once it commits: a rolled back
+    // envelope is processed again one event at a time, which counts its events then.
+    private void count(String metric) {
+        var counter = meterRegistry.counter(metric, SOURCE_TAG, PAYMENT_SERVICE.name());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                counter.increment();
+            }
+        });
+    }
+
+    // Steps slower than the JFR threshold are recorded as saga.Db events.
+    private boolean recordStep(String operation, Event event, BooleanSupplier step) {
+        var db = new SagaDbEvent();
+        db.begin();
         try {
-            changePaymentStatusToRefund(event);
-            addHistory(event, "Rollback executed for payment!");
-        } catch (Exception e) {
-            addHistory(event, "Rollback not executed for payment: ".concat(e.getMessage()));
+            return step.getAsBoolean();
+        } finally {
+            db.end();
+            if (db.shouldCommit()) {
+                db.transactionId = event.getTransactionId();
+                db.operation = operation;
+                db.status = event.getStatus() == null ? null : event.getStatus().name();
+                db.commit();
+            }
         }
-        producer.sendEvent(jsonUtil.toJson(event));
+    }
+
+    public void realizeRefund(Event event) {
+        processRefund(event);
+        producer.sendEvent(event.getTransactionId(), event);
+    }
+
+    public void realizeRefund(EventEnvelope envelope) {
+        producer.sendEnvelope(envelopeProcessor.process(envelope, this::processRefund));
+    }
+
+    private boolean processRefund(Event event) {
+        return recordStep("refund", event, () -> {
+            count(COMPENSATIONS_METRIC);
+            event.setStatus(FAIL);
+            event.setSource(PAYMENT_SERVICE);
+            try {
+                changePaymentStatusToRefund(event);
+                addHistory(event, "Rollback executed for payment!");
+                return true;
+            } catch (Exception e) {
+                addHistory(event, "Rollback not executed for payment: ".concat(e.getMessage()));
+                return false;
+            }
+        });
     }
 
     private void changePaymentStatusToRefund(Event event) {
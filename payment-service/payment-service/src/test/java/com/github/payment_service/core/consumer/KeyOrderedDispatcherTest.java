@@ -0,0 +1,135 @@
+package com.github.payment_service.core.consumer;
+
+import com.github.payment_service.config.kafka.RecordTracing;
+import com.github.payment_service.core.dto.Event;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyOrderedDispatcherTest {
+
+    private final StaticListableBeanFactory beans = new StaticListableBeanFactory();
+    private final KeyOrderedDispatcher dispatcher = new KeyOrderedDispatcher(
+            new RecordTracing(beans.getBeanProvider(Tracer.class), beans.getBeanProvider(Propagator.class)), 4, 0, 3);
+    private final Map<String, Integer> handled = new ConcurrentHashMap<>();
+    private final List<String> handledEvents = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void doesNotHandleCompletedRecordsAgainAfterANack() {
+        var records = List.of(record(0, "tx-1"), record(1, "tx-2"), record(2, "tx-3"));
+
+        var first = new RecordingAcknowledgment();
+        dispatcher.dispatch(records, first, failingOnce("tx-1"));
+        assertEquals(0, first.nackIndex);
+
+        var redelivered = new RecordingAcknowledgment();
+        dispatcher.dispatch(records, redelivered, failingOnce("tx-1"));
+        assertTrue(redelivered.acknowledged);
+
+        assertEquals(Map.of("tx-1", 2, "tx-2", 1, "tx-3", 1), handled);
+    }
+
+    @Test
+    void holdsBackTheRecordsOfAKeyBehindItsFailedRecord() {
+        var records = List.of(record(0, "tx-1"), record(1, "tx-2"), record(2, "tx-1"));
+
+        var first = new RecordingAcknowledgment();
+        dispatcher.dispatch(records, first, failingOnce("tx-1"));
+        assertEquals(0, first.nackIndex);
+        assertEquals(List.of("event-0"), handledEvents);
+
+        var redelivered = new RecordingAcknowledgment();
+        dispatcher.dispatch(records, redelivered, failingOnce("tx-1"));
+        assertTrue(redelivered.acknowledged);
+
+        assertEquals(List.of("event-0", "event-0", "event-2"), handledEvents);
+        assertEquals(Map.of("tx-1", 3, "tx-2", 1), handled);
+    }
+
+    @Test
+    void forgetsCompletedRecordsOfARevokedPartition() {
+        var records = List.of(record(0, "tx-1"), record(1, "tx-2"));
+
+        dispatcher.dispatch(records, new RecordingAcknowledgment(), failingOnce("tx-1"));
+        dispatcher.onPartitionsRevokedAfterCommit(null, List.of(new TopicPartition("payment-success", 0)));
+        var redelivered = new RecordingAcknowledgment();
+        dispatcher.dispatch(records, redelivered, failingOnce("tx-1"));
+
+        assertTrue(redelivered.acknowledged);
+        assertEquals(Map.of("tx-1", 2, "tx-2", 2), handled);
+    }
+
+    @Test
+    void skipsARecordThatKeepsFailing() {
+        var records = List.of(record(0, "tx-1"));
+
+        for (var attempt = 1; attempt < 3; attempt++) {
+            var acknowledgment = new RecordingAcknowledgment();
+            dispatcher.dispatch(records, acknowledgment, event -> fail(event));
+            assertEquals(0, acknowledgment.nackIndex);
+        }
+        var last = new RecordingAcknowledgment();
+        dispatcher.dispatch(records, last, event -> fail(event));
+
+        assertTrue(last.acknowledged);
+    }
+
+    private Consumer<Event> failingOnce(String transactionId) {
+        return event -> {
+            if (event.getTransactionId().equals(transactionId)) {
+                handledEvents.add(event.getId());
+            }
+            var attempts = handled.merge(event.getTransactionId(), 1, Integer::sum);
+            if (event.getTransactionId().equals(transactionId) && attempts == 1) {
+                throw new IllegalStateException("boom");
+            }
+        };
+    }
+
+    private void fail(Event event) {
+        handled.merge(event.getTransactionId(), 1, Integer::sum);
+        throw new IllegalStateException("boom");
+    }
+
+    private static ConsumerRecord<String, Event> record(long offset, String transactionId) {
+        var event = Event.builder().id("event-" + offset).transactionId(transactionId).build();
+        return new ConsumerRecord<>("payment-success", 0, offset, transactionId, event);
+    }
+
+    private static final class RecordingAcknowledgment implements Acknowledgment {
+
+        private boolean acknowledged;
+        private int nackIndex = -1;
+
+        @Override
+        public void acknowledge() {
+            acknowledged = true;
+        }
+
+        @Override
+        public void nack(int index, Duration sleep) {
+            nackIndex = index;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.github.product_validation_service.core.consumer;
+
+import com.github.product_validation_service.config.kafka.RecordTracing;
+import com.github.product_validation_service.core.dto.Event;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Spreads a polled batch across single-threaded worker lanes chosen by record key. Records of the
+ * same saga always land on the same lane and run in offset order, independent sagas run in
+ * parallel. The batch is acknowledged only up to the first record that did not complete, a record
+ * that keeps failing is skipped after {@code max-attempts} redeliveries. Records whose payload
+ * could not be decoded arrive with a {@code null} value and are skipped right away.
+ *
+ * <p>The records of a key are chained: once one fails, the records after it with the same key are
+ * held back instead of run, and the nack redelivers them behind it. Records of other keys after the
+ * first failure that did complete are remembered and skipped when the nack redelivers them.
+ * Handling one again would find its own transaction and roll a good saga back.
+ *
+ * <p>Both the remembered records and the attempt counts belong to the partitions of this consumer;
+ * they are dropped when a rebalance takes a partition away, its next owner starts from the
+ * committed offset on its own.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.kafka.consumer.mode", havingValue = "parallel")
+public class KeyOrderedDispatcher implements ConsumerAwareRebalanceListener {
+
+    private final ExecutorService[] lanes;
+    private final Duration retryBackoff;
+    private final int maxAttempts;
+    private final Map<String, Integer> failedAttempts = new ConcurrentHashMap<>();
+    private final Set<String> completedAhead = ConcurrentHashMap.newKeySet();
+    private final RecordTracing recordTracing;
+
+    public KeyOrderedDispatcher(RecordTracing recordTracing,
+                                @Value("${spring.kafka.consumer.parallel.workers:10}") int workers,
+                                @Value("${spring.kafka.consumer.parallel.retry-backoff-ms:1000}") long retryBackoffMillis,
+                                @Value("${spring.kafka.consumer.parallel.max-attempts:10}") int maxAttempts) {
+        this.lanes = new ExecutorService[workers];
+        for (var index = 0; index < workers; index++) {
+            var name = "saga-worker-" + index;
+            lanes[index] = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, name));
+        }
+        this.retryBackoff = Duration.ofMillis(retryBackoffMillis);
+        this.maxAttempts = maxAttempts;
+        this.recordTracing = recordTracing;
+    }
+
+    public void dispatch(List<ConsumerRecord<String, Event>> records,
+                         Acknowledgment acknowledgment,
+                         Consumer<Event> handler) {
+        var completions = new ArrayList<CompletableFuture<Void>>(records.size());
+        var lastOfKey = new HashMap<String, CompletableFuture<Void>>();
+        for (var record : records) {
+            if (!completedAhead.isEmpty() && completedAhead.remove(recordId(record))) {
+                completions.add(CompletableFuture.completedFuture(null));
+                continue;
+            }
+            if (record.value() == null) {
+                log.error("Skipping record {} of transaction {}: payload could not be decoded", recordId(record), record.key());
+                completions.add(CompletableFuture.completedFuture(null));
+                continue;
+            }
+            Runnable task = () -> process(record, handler);
+            var previous = lastOfKey.get(record.key());
+            var completion = previous == null
+                    ? CompletableFuture.runAsync(task, laneOf(record.key()))
+                    : previous.thenRunAsync(task, laneOf(record.key()));
+            lastOfKey.put(record.key(), completion);
+            completions.add(completion);
+        }
+        var firstFailure = -1;
+        var failedKeys = new HashSet<String>();
+        for (var index = 0; index < completions.size(); index++) {
+            var record = records.get(index);
+            try {
+                completions.get(index).join();
+            } catch (Exception e) {
+                if (!failedKeys.add(record.key())) {
+                    log.warn("Holding back record {} of transaction {} behind a failed record", recordId(record), record.key());
+                }
+                if (firstFailure < 0) {
+                    firstFailure = index;
+                }
+                continue;
+            }
+            if (firstFailure >= 0) {
+                completedAhead.add(recordId(record));
+            }
+        }
+        if (firstFailure < 0) {
+            acknowledgment.acknowledge();
+            return;
+        }
+        acknowledgment.nack(firstFailure, retryBackoff);
+    }
+
+    // Runs on the lane. A record given up on completes normally, so the records of its key go on.
+    private void process(ConsumerRecord<String, Event> record, Consumer<Event> handler) {
+        try {
+            recordTracing.process(record, () -> handler.accept(record.value()));
+        } catch (RuntimeException e) {
+            log.error("Failed to process record {} of transaction {}: {}", recordId(record), record.key(), e.getMessage());
+            if (shouldRetry(record)) {
+                throw e;
+            }
+            return;
+        }
+        if (!failedAttempts.isEmpty()) {
+            failedAttempts.remove(recordId(record));
+        }
+    }
+
+    private boolean shouldRetry(ConsumerRecord<String, Event> record) {
+        var id = recordId(record);
+        if (failedAttempts.merge(id, 1, Integer::sum) < maxAttempts) {
+            return true;
+        }
+        failedAttempts.remove(id);
+        log.error("Giving up on record {} after {} attempts", id, maxAttempts);
+        return false;
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(org.apache.kafka.clients.consumer.Consumer<?, ?> consumer,
+                                               Collection<TopicPartition> partitions) {
+        forget(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(org.apache.kafka.clients.consumer.Consumer<?, ?> consumer,
+                                 Collection<TopicPartition> partitions) {
+        forget(partitions);
+    }
+
+    private void forget(Collection<TopicPartition> partitions) {
+        for (var partition : partitions) {
+            var prefix = partitionId(partition.topic(), partition.partition());
+            completedAhead.removeIf(id -> id.startsWith(prefix));
+            failedAttempts.keySet().removeIf(id -> id.startsWith(prefix));
+        }
+    }
+
+    private static String recordId(ConsumerRecord<String, Event> record) {
+        return partitionId(record.topic(), record.partition()) + record.offset();
+    }
+
+    private static String partitionId(String topic, int partition) {
+        return topic + "-" + partition + "@";
+    }
+
+    private ExecutorService laneOf(String key) {
+        return key == null ? lanes[0] : lanes[(key.hashCode() & Integer.MAX_VALUE) % lanes.length];
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (var lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
@@ -1,27 +1,27 @@
 package com.github.product_validation_service.core.consumer;
 
+import com.github.product_validation_service.core.dto.Event;
 import com.github.product_validation_service.core.service.ProductValidationService;
-import com.github.product_validation_service.core.utils.JsonUtil;
+import com.github.product_validation_service.core.utils.SagaLog;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-@Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.consumer.mode", havingValue = "record", matchIfMissing = true)
 public class ProductValidationConsumer {
 
     private final ProductValidationService productValidationService;
-    private final JsonUtil jsonUtil;
+    private final SagaLog sagaLog;
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.product-validation-success}"
     )
-    public void consumeProductValidationSuccessEvent(String payload) {
-        log.info("Receiving success event {} from product-validation-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumeProductValidationSuccessEvent(Event event) {
+        sagaLog.received("product-validation-success", event);
         productValidationService.validateExistingProducts(event);
     }
 
@@ -29,9 +29,8 @@ public class ProductValidationConsumer {
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.product-validation-fail}"
     )
-    public void consumeProductValidationFailEvent(String payload) {
-        log.info("Receiving rollback event {} from product-validation-fail topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumeProductValidationFailEvent(Event event) {
+        sagaLog.received("product-validation-fail", event);
         productValidationService.rollbackEvent(event);
     }
 }
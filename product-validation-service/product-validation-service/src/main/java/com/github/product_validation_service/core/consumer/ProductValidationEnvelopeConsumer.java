@@ -0,0 +1,38 @@
+package com.github.product_validation_service.core.consumer;
+
+import com.github.product_validation_service.core.dto.EventEnvelope;
+import com.github.product_validation_service.core.service.ProductValidationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.consumer.mode", havingValue = "envelope")
+public class ProductValidationEnvelopeConsumer {
+
+    private final ProductValidationService productValidationService;
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.product-validation-success}",
+            containerFactory = "envelopeKafkaListenerContainerFactory"
+    )
+    public void consumeProductValidationSuccessEnvelope(EventEnvelope envelope) {
+        log.info("Receiving envelope of {} success events from product-validation-success topic", envelope.getEvents().size());
+        productValidationService.validateExistingProducts(envelope);
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.product-validation-fail}",
+            containerFactory = "envelopeKafkaListenerContainerFactory"
+    )
+    public void consumeProductValidationFailEnvelope(EventEnvelope envelope) {
+        log.info("Receiving envelope of {} rollback events from product-validation-fail topic", envelope.getEvents().size());
+        productValidationService.rollbackEvent(envelope);
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.product_validation_service.core.consumer;
+
+import com.github.product_validation_service.core.dto.Event;
+import com.github.product_validation_service.core.service.ProductValidationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.consumer.mode", havingValue = "parallel")
+public class ProductValidationParallelConsumer {
+
+    private final ProductValidationService productValidationService;
+    private final KeyOrderedDispatcher dispatcher;
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.product-validation-success}",
+            containerFactory = "parallelKafkaListenerContainerFactory"
+    )
+    public void consumeProductValidationSuccessEvents(List<ConsumerRecord<String, Event>> records, Acknowledgment acknowledgment) {
+        log.info("Receiving {} success events from product-validation-success topic", records.size());
+        dispatcher.dispatch(records, acknowledgment, productValidationService::validateExistingProducts);
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.product-validation-fail}",
+            containerFactory = "parallelKafkaListenerContainerFactory"
+    )
+    public void consumeProductValidationFailEvents(List<ConsumerRecord<String, Event>> records, Acknowledgment acknowledgment) {
+        log.info("Receiving {} rollback events from product-validation-fail topic", records.size());
+        dispatcher.dispatch(records, acknowledgment, productValidationService::rollbackEvent);
+    }
+}
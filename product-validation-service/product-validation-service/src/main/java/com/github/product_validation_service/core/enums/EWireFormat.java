@@ -0,0 +1,6 @@
+package com.github.product_validation_service.core.enums;
+
+public enum EWireFormat {
+    JSON,
+    BINARY
+}
@@ -0,0 +1,30 @@
+package com.github.product_validation_service.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Database work of one saga step in the participant, from its first query to the outcome written
+ * on the event.
+ */
+@Name("saga.Db")
+@Label("Saga Database Step")
+@Category("Saga")
+@Description("Database work of a saga step")
+@StackTrace(false)
+@Threshold("10 ms")
+public class SagaDbEvent extends jdk.jfr.Event {
+
+    @Label("Transaction Id")
+    public String transactionId;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Status")
+    public String status;
+}
@@ -1,28 +1,141 @@
 package com.github.product_validation_service.core.producer;
 
+import com.github.product_validation_service.config.kafka.SagaHeaders;
+import com.github.product_validation_service.core.dto.Event;
+import com.github.product_validation_service.core.dto.EventEnvelope;
+import com.github.product_validation_service.core.jfr.SagaProduceEvent;
+import com.github.product_validation_service.core.utils.SagaLog;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class KafkaProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, Event> kafkaTemplate;
+    private final KafkaTemplate<String, EventEnvelope> envelopeKafkaTemplate;
+    private final SagaLog sagaLog;
 
     @Value("${spring.kafka.topic.orchestrator}")
     private String orchestratorTopic;
 
-    public void sendEvent(String payload) {
-        try{
-            log.info("Sending event to Kafka topic {}: {}", orchestratorTopic, payload);
-            kafkaTemplate.send(orchestratorTopic, payload);
+    @Value("${spring.kafka.producer.max-in-flight:1000}")
+    private int maxInFlight;
+
+    @Value("${spring.kafka.producer.window-timeout-ms:30000}")
+    private long windowTimeoutMillis;
+
+    private final LongAdder sentEvents = new LongAdder();
+    private final LongAdder failedEvents = new LongAdder();
+    private Semaphore inFlight;
+
+    @PostConstruct
+    void init() {
+        inFlight = new Semaphore(maxInFlight);
+    }
+
+    public void sendEvent(String key, Event event) {
+        sagaLog.sending(orchestratorTopic, event);
+        acquirePermit();
+        send(kafkaTemplate, key, createRecord(key, event));
+    }
+
+    // Envelopes carry several sagas, so they are not keyed and carry no routing headers.
+    public void sendEnvelope(EventEnvelope envelope) {
+        log.info("Sending envelope of {} events to Kafka topic {}", envelope.getEvents().size(), orchestratorTopic);
+        acquirePermit();
+        send(envelopeKafkaTemplate, null, new ProducerRecord<>(orchestratorTopic, envelope));
+    }
+
+    public int getInFlightEvents() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    public long getSentEvents() {
+        return sentEvents.sum();
+    }
+
+    public long getFailedEvents() {
+        return failedEvents.sum();
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!inFlight.tryAcquire(windowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Producer window to topic " + orchestratorTopic + " is full.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for producer window to topic " + orchestratorTopic, e);
+        }
+    }
+
+    private <V> void send(KafkaTemplate<String, V> template, String key, ProducerRecord<String, V> record) {
+        var produce = new SagaProduceEvent();
+        produce.begin();
+        try {
+            template
+                    .send(record)
+                    .whenComplete((result, error) -> {
+                        recordProduce(produce, key, orchestratorTopic, error == null);
+                        onCompletion(key, error);
+                    });
         } catch (Exception e) {
-            log.error("Failed to send event to Kafka topic {}: {}", orchestratorTopic, e.getMessage());
+            recordProduce(produce, key, orchestratorTopic, false);
+            onCompletion(key, e);
         }
     }
 
+    // Sends slower than the JFR threshold are recorded as saga.Produce events.
+    private static void recordProduce(SagaProduceEvent produce, String key, String topic, boolean succeeded) {
+        produce.end();
+        if (produce.shouldCommit()) {
+            produce.transactionId = key;
+            produce.topic = topic;
+            produce.succeeded = succeeded;
+            produce.commit();
+        }
+    }
+
+    // The idempotent producer retries on its own until delivery-timeout-ms. A send that fails after
+    // that may still have reached the broker, so it is reported as failed rather than sent again.
+    private void onCompletion(String key, Throwable error) {
+        if (error == null) {
+            sentEvents.increment();
+        } else {
+            failedEvents.increment();
+            log.error("Failed to send event to Kafka topic {} for key {}: {}", orchestratorTopic, key, error.getMessage());
+        }
+        inFlight.release();
+    }
+
+    // Headers let the orchestrator route the reply without decoding it.
+    private ProducerRecord<String, Event> createRecord(String key, Event event) {
+        var record = new ProducerRecord<>(orchestratorTopic, key, event);
+        if (key != null && event.getSource() != null && event.getStatus() != null) {
+            record.headers()
+                    .add(SagaHeaders.SOURCE, event.getSource().getBytes(UTF_8))
+                    .add(SagaHeaders.STATUS, event.getStatus().name().getBytes(UTF_8))
+                    .add(SagaHeaders.TRANSACTION_ID, key.getBytes(UTF_8))
+                    .add(SagaHeaders.HISTORY_SIZE, String.valueOf(historySize(event)).getBytes(UTF_8));
+        }
+        return record;
+    }
+
+    private static int historySize(Event event) {
+        return event.getEventHistory() == null ? 0 : event.getEventHistory().size();
+    }
+
 }
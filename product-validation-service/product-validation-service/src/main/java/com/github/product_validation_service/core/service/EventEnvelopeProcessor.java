@@ -0,0 +1,69 @@
+package com.github.product_validation_service.core.service;
+
+import com.github.product_validation_service.core.dto.Event;
+import com.github.product_validation_service.core.dto.EventEnvelope;
+import com.github.product_validation_service.core.dto.History;
+import com.github.product_validation_service.core.enums.ESagaStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Runs the events of an envelope in one database transaction and returns the matching reply
+ * envelope. A handler returns {@code false} when its step failed: the transaction is then rolled
+ * back, so the partial writes of that step are not committed with its neighbours, and the events
+ * are processed again one by one as if they had arrived as single records.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventEnvelopeProcessor {
+
+    private final TransactionTemplate transactionTemplate;
+
+    public EventEnvelope process(EventEnvelope envelope, Predicate<Event> handler) {
+        var events = envelope.getEvents();
+        var arrivals = events.stream().map(Arrival::of).toList();
+        try {
+            var committed = transactionTemplate.execute(status -> {
+                for (var event : events) {
+                    if (!handler.test(event)) {
+                        status.setRollbackOnly();
+                        return false;
+                    }
+                }
+                return true;
+            });
+            if (Boolean.TRUE.equals(committed)) {
+                return envelope;
+            }
+            log.info("An event of an envelope of {} events failed, processing them one by one", events.size());
+        } catch (RuntimeException e) {
+            log.warn("Envelope of {} events failed as a unit, processing them one by one: {}", events.size(), e.getMessage());
+        }
+        arrivals.forEach(Arrival::restore);
+        events.forEach(handler::test);
+        return envelope;
+    }
+
+    // Steps change the source, status and history of an event; anything else they change in the
+    // payload is set again when the step runs a second time.
+    private record Arrival(Event event, String source, ESagaStatus status, List<History> history) {
+
+        static Arrival of(Event event) {
+            var history = event.getEventHistory();
+            return new Arrival(event, event.getSource(), event.getStatus(), history == null ? null : new ArrayList<>(history));
+        }
+
+        void restore() {
+            event.setSource(source);
+            event.setStatus(status);
+            event.setEventHistory(history);
+        }
+    }
+}
@@ -2,44 +2,68 @@ package com.github.product_validation_service.core.service;
 
 import com.github.product_validation_service.config.exception.ValidationException;
 import com.github.product_validation_service.core.dto.Event;
+import com.github.product_validation_service.core.dto.EventEnvelope;
 import com.github.product_validation_service.core.dto.History;
 import com.github.product_validation_service.core.dto.OrderProducts;
+import com.github.product_validation_service.core.jfr.SagaDbEvent;
 import com.github.product_validation_service.core.model.Validation;
 import com.github.product_validation_service.core.producer.KafkaProducer;
 import com.github.product_validation_service.core.repository.ProductRepository;
 import com.github.product_validation_service.core.repository.ValidationRepository;
-import com.github.product_validation_service.core.utils.JsonUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.annotation.Observed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
 
 import static com.github.product_validation_service.core.enums.ESagaStatus.*;
 import static org.springframework.util.ObjectUtils.isEmpty;
 
 @Slf4j
 @Service
+@Observed(name = "saga.service")
 @AllArgsConstructor
 public class ProductValidationService {
 
     private static final String CURRENT_SOURCE = "PRODUCT_VALIDATION_SERVICE";
+    private static final String COMPENSATIONS_METRIC = "saga.compensations";
+    private static final String VALIDATION_ERRORS_METRIC = "saga.validation.errors";
+    private static final String SOURCE_TAG = "source";
 
-    private final JsonUtil jsonUtil;
     private final KafkaProducer producer;
     private final ProductRepository productRepository;
     private final ValidationRepository validationRepository;
+    private final EventEnvelopeProcessor envelopeProcessor;
+    private final MeterRegistry meterRegistry;
 
     public void validateExistingProducts(Event event) {
-        try {
-            checkCurrentValidation(event);
-            createValidation(event, true);
-            handleSuccess(event);
-        } catch (Exception e) {
-            log.error("Error trying to validate products: {}", e.getMessage());
-            handleFailCurrentNotExecuted(event, e.getMessage());
-        }
-        producer.sendEvent(jsonUtil.toJson(event));
+        processValidation(event);
+        producer.sendEvent(event.getTransactionId(), event);
+    }
+
+    public void validateExistingProducts(EventEnvelope envelope) {
+        producer.sendEnvelope(envelopeProcessor.process(envelope, this::processValidation));
+    }
+
+    private boolean processValidation(Event event) {
+        return recordStep("validate", event, () -> {
+            try {
+                checkCurrentValidation(event);
+                createValidation(event, true);
+                handleSuccess(event);
+                return true;
+            } catch (Exception e) {
+                log.error("Error trying to validate products: {}", e.getMessage());
+                countValidationError(e);
+                handleFailCurrentNotExecuted(event, e.getMessage());
+                return false;
+            }
+        });
     }
 
 
@@ -110,12 +134,64 @@ public class ProductValidationService {
         addHistory(event, "Fail to validate Products: ".concat(message));
     }
 
+    private void countValidationError(Exception e) {
+        if (e instanceof ValidationException) {
+            count(VALIDATION_ERRORS_METRIC);
+        }
+    }
+
+    // Inside the transaction of an envelope the meter moves only once it commits: a rolled back
+    // envelope is processed again one event at a time, which counts its events then.
+    private void count(String metric) {
+        var counter = meterRegistry.counter(metric, SOURCE_TAG, CURRENT_SOURCE);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                counter.increment();
+            }
+        });
+    }
+
+    // Steps slower than the JFR threshold are recorded as saga.Db events.
+    private boolean recordStep(String operation, Event event, BooleanSupplier step) {
+        var db = new SagaDbEvent();
+        db.begin();
+        try {
+            return step.getAsBoolean();
+        } finally {
+            db.end();
+            if (db.shouldCommit()) {
+                db.transactionId = event.getTransactionId();
+                db.operation = operation;
+                db.status = event.getStatus() == null ? null : event.getStatus().name();
+                db.commit();
+            }
+        }
+    }
+
     public void rollbackEvent(Event event) {
-        chageValidationToFail(event);
-        event.setStatus(FAIL);
-        event.setSource(CURRENT_SOURCE);
-        addHistory(event, "Rollback executed on product validation!");
-        producer.sendEvent(jsonUtil.toJson(event));
+        processRollback(event);
+        producer.sendEvent(event.getTransactionId(), event);
+    }
+
+    public void rollbackEvent(EventEnvelope envelope) {
+        producer.sendEnvelope(envelopeProcessor.process(envelope, this::processRollback));
+    }
+
+    private boolean processRollback(Event event) {
+        return recordStep("rollback", event, () -> {
+            count(COMPENSATIONS_METRIC);
+            chageValidationToFail(event);
+            event.setStatus(FAIL);
+            event.setSource(CURRENT_SOURCE);
+            addHistory(event, "Rollback executed on product validation!");
+            return true;
+        });
     }
 
     private void chageValidationToFail(Event event) {
@@ -0,0 +1,360 @@
+package com.github.product_validation_service.core.utils;
+
+import com.github.product_validation_service.core.dto.Event;
+import com.github.product_validation_service.core.dto.EventEnvelope;
+import com.github.product_validation_service.core.dto.History;
+import com.github.product_validation_service.core.dto.Order;
+import com.github.product_validation_service.core.dto.OrderProducts;
+import com.github.product_validation_service.core.dto.Product;
+import com.github.product_validation_service.core.enums.ESagaStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Binary wire format for {@link Event}, shared by every service of the saga.
+ *
+ * <p>Layout: {@code byte magic | byte version | event}. Strings are a varint of {@code length + 1}
+ * followed by UTF-8 bytes, {@code 0} meaning {@code null}; lists use the same {@code size + 1}
+ * prefix. Timestamps are zig-zag varints of UTC epoch millis plus one, so precision below a
+ * millisecond is dropped. Sources and statuses are written as positions in the canonical name
+ * tables below, so the format does not depend on the enum declaration order of any service.
+ */
+@Component
+public class EventCodec {
+
+    public static final byte MAGIC = (byte) 0xC5;
+    public static final byte ENVELOPE_MAGIC = (byte) 0xC6;
+    public static final byte VERSION = 1;
+
+    private static final String[] SOURCES = {
+            "ORCHESTRATOR", "PRODUCT_VALIDATION_SERVICE", "PAYMENT_SERVICE", "INVENTORY_SERVICE"
+    };
+    private static final String[] STATUSES = {"SUCCESS", "ROLLBACK_PENDING", "FAIL"};
+
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    public boolean isEncoded(byte[] data) {
+        return data.length > 0 && data[0] == MAGIC;
+    }
+
+    public boolean isEnvelope(byte[] data) {
+        return data.length > 0 && data[0] == ENVELOPE_MAGIC;
+    }
+
+    public byte[] encode(Event event) {
+        var out = new Output();
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        writeEvent(out, event);
+        return out.toByteArray();
+    }
+
+    /**
+     * Envelope layout: {@code byte envelope magic | byte version | varint count + 1 | event...}, each
+     * event written as by {@link #encode(Event)} without its own magic and version.
+     */
+    public byte[] encodeEnvelope(EventEnvelope envelope) {
+        var out = new Output();
+        out.writeByte(ENVELOPE_MAGIC);
+        out.writeByte(VERSION);
+        var events = envelope.getEvents();
+        out.writeSize(events);
+        if (events != null) {
+            for (var event : events) {
+                writeEvent(out, event);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public Event decode(byte[] data) {
+        var in = new Input(data);
+        if (in.readByte() != MAGIC) {
+            throw new IllegalArgumentException("Not a binary saga event.");
+        }
+        checkVersion(in.readByte());
+        return readEvent(in);
+    }
+
+    public EventEnvelope decodeEnvelope(byte[] data) {
+        var in = new Input(data);
+        if (in.readByte() != ENVELOPE_MAGIC) {
+            throw new IllegalArgumentException("Not a binary saga event envelope.");
+        }
+        checkVersion(in.readByte());
+        var size = in.readSize();
+        var events = new ArrayList<Event>(Math.max(size, 0));
+        for (var index = 0; index < size; index++) {
+            events.add(readEvent(in));
+        }
+        return new EventEnvelope(events);
+    }
+
+    private static void checkVersion(byte version) {
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported saga event version " + version);
+        }
+    }
+
+    private void writeEvent(Output out, Event event) {
+        out.writeString(event.getId());
+        out.writeString(event.getTransactionId());
+        out.writeString(event.getOrderId());
+        writeOrder(out, event.getPayload());
+        out.writeName(SOURCES, event.getSource());
+        out.writeName(STATUSES, name(event.getStatus()));
+        var history = event.getEventHistory();
+        out.writeSize(history);
+        if (history != null) {
+            for (var entry : history) {
+                out.writeName(SOURCES, entry.getSource());
+                out.writeName(STATUSES, name(entry.getStatus()));
+                out.writeString(entry.getMessage());
+                out.writeTimestamp(entry.getCreatedAt());
+            }
+        }
+        out.writeTimestamp(event.getCreatedAt());
+    }
+
+    private Event readEvent(Input in) {
+        var event = new Event();
+        event.setId(in.readString());
+        event.setTransactionId(in.readString());
+        event.setOrderId(in.readString());
+        event.setPayload(readOrder(in));
+        event.setSource(in.readName(SOURCES));
+        event.setStatus(toEnum(ESagaStatus.class, in.readName(STATUSES)));
+        var size = in.readSize();
+        if (size >= 0) {
+            var history = new ArrayList<History>(size);
+            for (var index = 0; index < size; index++) {
+                history.add(new History(
+                        in.readName(SOURCES),
+                        toEnum(ESagaStatus.class, in.readName(STATUSES)),
+                        in.readString(),
+                        in.readTimestamp()));
+            }
+            event.setEventHistory(history);
+        }
+        event.setCreatedAt(in.readTimestamp());
+        return event;
+    }
+
+    private void writeOrder(Output out, Order order) {
+        if (order == null) {
+            out.writeVarLong(0);
+            return;
+        }
+        out.writeVarLong(1);
+        out.writeString(order.getId());
+        var products = order.getProducts();
+        out.writeSize(products);
+        if (products != null) {
+            for (var item : products) {
+                var product = item.getProduct();
+                out.writeVarLong(product == null ? 0 : 1);
+                if (product != null) {
+                    out.writeString(product.getCode());
+                    out.writeDouble(product.getUnitValue());
+                }
+                out.writeZigZag(item.getQuantity());
+            }
+        }
+        out.writeTimestamp(order.getCreatedAt());
+        out.writeString(order.getTransactionId());
+        out.writeDouble(order.getTotalAmount());
+        out.writeZigZag(order.getTotalItems());
+    }
+
+    private Order readOrder(Input in) {
+        if (in.readVarLong() == 0) {
+            return null;
+        }
+        var order = new Order();
+        order.setId(in.readString());
+        var size = in.readSize();
+        if (size >= 0) {
+            var products = new ArrayList<OrderProducts>(size);
+            for (var index = 0; index < size; index++) {
+                var product = in.readVarLong() == 0 ? null : new Product(in.readString(), in.readDouble());
+                products.add(new OrderProducts(product, (int) in.readZigZag()));
+            }
+            order.setProducts(products);
+        }
+        order.setCreatedAt(in.readTimestamp());
+        order.setTransactionId(in.readString());
+        order.setTotalAmount(in.readDouble());
+        order.setTotalItems((int) in.readZigZag());
+        return order;
+    }
+
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+
+    private static <E extends Enum<E>> E toEnum(Class<E> type, String name) {
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+
+    private static final class Output {
+
+        private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+        private int position;
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong(zigZag(value));
+        }
+
+        void writeDouble(double value) {
+            var bits = Double.doubleToRawLongBits(value);
+            ensureCapacity(Long.BYTES);
+            for (var shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (bits >>> shift);
+            }
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            var bytes = value.getBytes(UTF_8);
+            writeVarLong(bytes.length + 1L);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeSize(List<?> list) {
+            writeVarLong(list == null ? 0 : list.size() + 1L);
+        }
+
+        void writeTimestamp(LocalDateTime value) {
+            writeVarLong(value == null ? 0 : zigZag(value.toInstant(ZoneOffset.UTC).toEpochMilli()) + 1);
+        }
+
+        // 0 is null, 1..n a table entry, n + 1 a name outside the table followed by the name itself.
+        void writeName(String[] table, String name) {
+            if (name == null) {
+                writeVarLong(0);
+                return;
+            }
+            for (var index = 0; index < table.length; index++) {
+                if (table[index].equals(name)) {
+                    writeVarLong(index + 1L);
+                    return;
+                }
+            }
+            writeVarLong(table.length + 1L);
+            writeString(name);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+
+        private static long zigZag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+    private static final class Input {
+
+        private final byte[] buffer;
+        private int position;
+
+        Input(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        byte readByte() {
+            return buffer[position++];
+        }
+
+        long readVarLong() {
+            var value = 0L;
+            for (var shift = 0; shift < 64; shift += 7) {
+                var current = buffer[position++];
+                value |= (long) (current & 0x7F) << shift;
+                if (current >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in saga event.");
+        }
+
+        long readZigZag() {
+            return unZigZag(readVarLong());
+        }
+
+        double readDouble() {
+            var bits = 0L;
+            for (var index = 0; index < Long.BYTES; index++) {
+                bits = (bits << 8) | (buffer[position++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        String readString() {
+            var length = (int) readVarLong() - 1;
+            if (length < 0) {
+                return null;
+            }
+            var value = new String(buffer, position, length, UTF_8);
+            position += length;
+            return value;
+        }
+
+        int readSize() {
+            return (int) readVarLong() - 1;
+        }
+
+        LocalDateTime readTimestamp() {
+            var value = readVarLong();
+            if (value == 0) {
+                return null;
+            }
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(unZigZag(value - 1)), ZoneOffset.UTC);
+        }
+
+        String readName(String[] table) {
+            var index = (int) readVarLong();
+            if (index == 0) {
+                return null;
+            }
+            return index <= table.length ? table[index - 1] : readString();
+        }
+
+        private static long unZigZag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
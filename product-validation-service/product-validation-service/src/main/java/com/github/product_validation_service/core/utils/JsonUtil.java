@@ -1,15 +1,28 @@
 package com.github.product_validation_service.core.utils;
 
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.github.product_validation_service.core.dto.Event;
-import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 
 @Component
-@AllArgsConstructor
 public class JsonUtil {
 
+    // Larger buffers are dropped after use instead of being pinned to the thread.
+    private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+
     private final ObjectMapper objectMapper;
+    private final ObjectReader eventReader;
+    private final ObjectWriter eventWriter;
+    private final ThreadLocal<ByteArrayBuilder> buffers = ThreadLocal.withInitial(ByteArrayBuilder::new);
+
+    public JsonUtil(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.eventReader = objectMapper.readerFor(Event.class);
+        this.eventWriter = objectMapper.writerFor(Event.class);
+    }
 
     public String toJson(Object object) {
         try {
@@ -21,9 +34,38 @@ public class JsonUtil {
 
     public Event toEvent(String json) {
         try {
-            return objectMapper.readValue(json, Event.class);
+            return eventReader.readValue(json);
         } catch (Exception ex) {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes the event as UTF-8 JSON into a buffer reused by the calling thread, skipping the
+     * intermediate {@code String}. Unlike {@link #toJson(Object)} failures are thrown, the Kafka
+     * serializer needs them.
+     */
+    public byte[] toJsonBytes(Event event) {
+        var buffer = buffers.get();
+        try {
+            eventWriter.writeValue(buffer, event);
+            return buffer.toByteArray();
+        } catch (Exception ex) {
+            throw new RuntimeException("Failed to convert Event to JSON", ex);
+        } finally {
+            if (buffer.getCurrentSegment().length > MAX_POOLED_BUFFER_SIZE) {
+                buffers.remove();
+            } else {
+                buffer.reset();
+            }
+        }
+    }
+
+    public Event toEvent(byte[] json) {
+        try {
+            return eventReader.readValue(json);
+        } catch (Exception ex) {
+            throw new RuntimeException("Failed to convert JSON to Event", ex);
+        }
+    }
+}